@@ -0,0 +1,79 @@
+package com.tree.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Named, bounded executors per async workload.
+ *
+ * Each pool has a bounded queue and a counting caller-runs rejection policy, so a
+ * burst slows its producer down instead of piling up tasks. Plain @Async methods
+ * keep using Spring Boot's applicationTaskExecutor (spring.task.execution.*).
+ */
+@Slf4j
+@Configuration
+@EnableAsync
+@EnableConfigurationProperties(AsyncProperties.class)
+@RequiredArgsConstructor
+public class AsyncConfig implements AsyncConfigurer {
+
+    public static final String INDEXING_EXECUTOR = "indexingExecutor";
+    public static final String IMAGE_PROCESSING_EXECUTOR = "imageProcessingExecutor";
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+    public static final String UPLOAD_EXECUTOR = "uploadExecutor";
+
+    private final AsyncProperties properties;
+
+    // Search index rebuilds
+    @Bean(name = INDEXING_EXECUTOR)
+    public ThreadPoolTaskExecutor indexingExecutor() {
+        return executor("indexing", properties.getIndexing());
+    }
+
+    // Image resizing/variants for uploads
+    @Bean(name = IMAGE_PROCESSING_EXECUTOR)
+    public ThreadPoolTaskExecutor imageProcessingExecutor() {
+        return executor("image", properties.getImageProcessing());
+    }
+
+    // Outbound search engine notification calls
+    @Bean(name = NOTIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationExecutor() {
+        return executor("notification", properties.getNotification());
+    }
+
+    // Finishing files of streamed multi-file uploads
+    @Bean(name = UPLOAD_EXECUTOR)
+    public ThreadPoolTaskExecutor uploadExecutor() {
+        return executor("upload", properties.getUpload());
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) -> log.error("Async method {} failed: {}", method.getName(), ex.getMessage(), ex);
+    }
+
+    private ThreadPoolTaskExecutor executor(String name, AsyncProperties.Pool pool) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(name + "-");
+        executor.setCorePoolSize(pool.getCoreSize());
+        executor.setMaxPoolSize(pool.getMaxSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().toSeconds());
+        executor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(name));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        if (properties.isVirtualThreads()) {
+            // Same pool bounds, so back-pressure and metrics behave identically
+            executor.setThreadFactory(Thread.ofVirtual().name(name + "-", 0).factory());
+        }
+        return executor;
+    }
+}
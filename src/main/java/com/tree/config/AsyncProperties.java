@@ -0,0 +1,34 @@
+package com.tree.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the named async executors (app.async.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "app.async")
+public class AsyncProperties {
+
+    // Run executor threads as virtual threads (same bounds, queue and rejection policy)
+    private boolean virtualThreads = false;
+
+    private Pool indexing = new Pool(1, 2, 100, Duration.ofSeconds(60));
+    private Pool imageProcessing = new Pool(2, 4, 50, Duration.ofSeconds(60));
+    private Pool notification = new Pool(1, 2, 100, Duration.ofSeconds(60));
+    private Pool upload = new Pool(2, 4, 20, Duration.ofSeconds(60));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+        private int coreSize;
+        private int maxSize;
+        private int queueCapacity;
+        private Duration keepAlive;
+    }
+}
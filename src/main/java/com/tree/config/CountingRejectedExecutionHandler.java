@@ -0,0 +1,36 @@
+package com.tree.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caller-runs rejection policy that counts rejections.
+ *
+ * A saturated executor runs the task on the submitting thread, which slows the
+ * producer down instead of growing an unbounded queue.
+ */
+@Slf4j
+public class CountingRejectedExecutionHandler implements RejectedExecutionHandler {
+
+    private final String executorName;
+    private final RejectedExecutionHandler delegate = new ThreadPoolExecutor.CallerRunsPolicy();
+    private final LongAdder rejected = new LongAdder();
+
+    public CountingRejectedExecutionHandler(String executorName) {
+        this.executorName = executorName;
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+        rejected.increment();
+        log.debug("Executor {} saturated, running task on caller thread", executorName);
+        delegate.rejectedExecution(task, executor);
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
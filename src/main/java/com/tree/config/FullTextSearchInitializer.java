@@ -0,0 +1,93 @@
+package com.tree.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sets up PostgreSQL full-text search for articles and products:
+ * - "vn_unaccent" text search configuration (simple + unaccent, so "tram huong" matches "trầm hương")
+ * - generated, weighted search_vector columns kept in sync by the database on every write
+ * - GIN indexes on those columns
+ *
+ * Idempotent; runs after Hibernate has created/updated the tables. On other databases
+ * (H2 in tests) or when setup fails, search falls back to the LIKE queries.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FullTextSearchInitializer {
+
+    public static final String TEXT_SEARCH_CONFIG = "vn_unaccent";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean available;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!isPostgreSql()) {
+            log.info("Full-text search disabled: database is not PostgreSQL, using LIKE search");
+            return;
+        }
+
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS unaccent");
+            createTextSearchConfig();
+
+            addSearchVector("articles", "title", "summary", "content");
+            addSearchVector("products", "name", "summary", "description");
+
+            available = true;
+            log.info("Full-text search enabled with text search configuration '{}'", TEXT_SEARCH_CONFIG);
+        } catch (DataAccessException e) {
+            log.warn("Full-text search setup failed, using LIKE search: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether keyword can be served by the full-text queries; blank keywords keep the LIKE behaviour
+     */
+    public boolean supports(String keyword) {
+        return available && keyword != null && !keyword.isBlank();
+    }
+
+    private boolean isPostgreSql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    private void createTextSearchConfig() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_ts_config WHERE cfgname = ?", Integer.class, TEXT_SEARCH_CONFIG);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        jdbcTemplate.execute("CREATE TEXT SEARCH CONFIGURATION " + TEXT_SEARCH_CONFIG + " (COPY = simple)");
+        jdbcTemplate.execute("ALTER TEXT SEARCH CONFIGURATION " + TEXT_SEARCH_CONFIG
+                + " ALTER MAPPING FOR hword, hword_part, word WITH unaccent, simple");
+        log.info("Created text search configuration '{}'", TEXT_SEARCH_CONFIG);
+    }
+
+    // Weights: A = title/name, B = summary, C = body
+    private void addSearchVector(String table, String titleColumn, String summaryColumn, String bodyColumn) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS search_vector tsvector "
+                + "GENERATED ALWAYS AS ("
+                + weighted(titleColumn, 'A') + " || "
+                + weighted(summaryColumn, 'B') + " || "
+                + weighted(bodyColumn, 'C') + ") STORED");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_search_vector ON "
+                + table + " USING GIN (search_vector)");
+    }
+
+    private static String weighted(String column, char weight) {
+        return "setweight(to_tsvector('" + TEXT_SEARCH_CONFIG + "'::regconfig, coalesce(" + column + ", '')), '"
+                + weight + "')";
+    }
+}
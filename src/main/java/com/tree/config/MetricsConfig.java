@@ -0,0 +1,41 @@
+package com.tree.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+
+/**
+ * Application meters that Spring Boot does not bind on its own.
+ *
+ * Boot already publishes http.server.requests, Hikari (hikaricp.*), Hibernate
+ * (hibernate.*, only with HIBERNATE_STATISTICS_ENABLED) and executor.* pool/queue
+ * gauges; caches bind themselves as MeterBinder beans. This adds the caller-runs rejection counts of our pools.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder executorRejectionMetrics(Map<String, ThreadPoolTaskExecutor> executors) {
+        return registry -> executors.forEach((beanName, executor) -> {
+            if (executor.getThreadPoolExecutor().getRejectedExecutionHandler()
+                    instanceof CountingRejectedExecutionHandler handler) {
+                FunctionCounter.builder("executor.rejected", handler, CountingRejectedExecutionHandler::getRejectedCount)
+                        .description("Tasks that ran on the caller thread because the pool was saturated")
+                        .tag("name", executorName(beanName))
+                        .register(registry);
+            }
+        });
+    }
+
+    // Same tag value as Boot's executor.* meters: bean name without the "Executor" suffix
+    private static String executorName(String beanName) {
+        if (beanName.length() > "Executor".length() && beanName.endsWith("Executor")) {
+            return beanName.substring(0, beanName.length() - "Executor".length());
+        }
+        return beanName;
+    }
+}
@@ -0,0 +1,34 @@
+package com.tree.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Replaces Spring Boot's multipart resolver so streamed uploads reach their controller
+ * unparsed. The standard resolver makes the container read and buffer every part before
+ * the handler runs; for STREAMING_UPLOAD_PATH the body is left to StreamingUploadService.
+ */
+@Configuration
+public class MultipartConfig {
+
+    // FileUploadController#uploadStreaming
+    public static final String STREAMING_UPLOAD_PATH = "/api/admin/upload/stream/";
+
+    @Bean(name = DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+    public StandardServletMultipartResolver multipartResolver(MultipartProperties properties) {
+        StandardServletMultipartResolver resolver = new StandardServletMultipartResolver() {
+            @Override
+            public boolean isMultipart(HttpServletRequest request) {
+                return !request.getRequestURI().startsWith(request.getContextPath() + STREAMING_UPLOAD_PATH)
+                        && super.isMultipart(request);
+            }
+        };
+        resolver.setResolveLazily(properties.isResolveLazily());
+        resolver.setStrictServletCompliance(properties.isStrictServletCompliance());
+        return resolver;
+    }
+}
@@ -4,7 +4,9 @@ import com.tree.dto.ApiResponse;
 import com.tree.dto.PageResponse;
 import com.tree.dto.article.ArticleRequest;
 import com.tree.dto.article.ArticleResponse;
+import com.tree.dto.article.ArticleSummaryResponse;
 import com.tree.security.UserPrincipal;
+import com.tree.service.ArticleRenderService;
 import com.tree.service.ArticleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -27,10 +29,11 @@ import java.util.UUID;
 public class AdminArticleController {
 
     private final ArticleService articleService;
+    private final ArticleRenderService articleRenderService;
 
     @GetMapping
     @Operation(summary = "Get all articles (paginated)")
-    public ResponseEntity<ApiResponse<PageResponse<ArticleResponse>>> getAll(
+    public ResponseEntity<ApiResponse<PageResponse<ArticleSummaryResponse>>> getAll(
             @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
         return ResponseEntity.ok(ApiResponse.success(articleService.getAllArticles(pageable)));
     }
@@ -86,6 +89,12 @@ public class AdminArticleController {
         return ResponseEntity.ok(ApiResponse.success("Bài viết đã được xoá vĩnh viễn", null));
     }
 
+    @PostMapping("/re-render")
+    @Operation(summary = "Re-render articles whose HTML came from an older renderer version (409 if already running)")
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> reRender() {
+        return ResponseEntity.ok(ApiResponse.success(Map.of("rendered", articleRenderService.rerenderStale())));
+    }
+
     @PostMapping("/convert-html")
     @Operation(summary = "Convert HTML to Markdown")
     public ResponseEntity<ApiResponse<Map<String, String>>> convertHtmlToMarkdown(@RequestBody Map<String, String> request) {
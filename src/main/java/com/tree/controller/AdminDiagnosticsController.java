@@ -0,0 +1,102 @@
+package com.tree.controller;
+
+import com.tree.dto.ApiResponse;
+import com.tree.dto.CacheStatsResponse;
+import com.tree.diagnostics.RouteStatistics;
+import com.tree.dto.ExecutorStatsResponse;
+import com.tree.dto.RouteQueryStatsResponse;
+import com.tree.service.ArticlePageCache;
+import com.tree.service.CountCache;
+import com.tree.service.SearchEngineNotificationQueue;
+import com.tree.service.search.InMemorySearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/diagnostics")
+@RequiredArgsConstructor
+@Tag(name = "Admin - Diagnostics", description = "Runtime caches and statistics")
+public class AdminDiagnosticsController {
+
+    private final ArticlePageCache articlePageCache;
+    private final CountCache countCache;
+    private final InMemorySearchService inMemorySearchService;
+    private final SearchEngineNotificationQueue notificationQueue;
+    private final Map<String, ThreadPoolTaskExecutor> executors;
+    private final RouteStatistics routeStatistics;
+
+    @GetMapping("/article-cache")
+    @Operation(summary = "Get article page cache statistics")
+    public ResponseEntity<ApiResponse<CacheStatsResponse>> getArticleCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(articlePageCache.stats()));
+    }
+
+    @DeleteMapping("/article-cache")
+    @Operation(summary = "Clear article page cache")
+    public ResponseEntity<ApiResponse<Void>> clearArticleCache() {
+        articlePageCache.invalidateAll();
+        return ResponseEntity.ok(ApiResponse.success("Article cache cleared", null));
+    }
+
+    @GetMapping("/count-cache")
+    @Operation(summary = "Get list total-count cache statistics")
+    public ResponseEntity<ApiResponse<CacheStatsResponse>> getCountCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(countCache.stats()));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Get in-memory search index statistics")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSearchStats() {
+        return ResponseEntity.ok(ApiResponse.success(inMemorySearchService.stats()));
+    }
+
+    @PostMapping("/search/rebuild")
+    @Operation(summary = "Rebuild in-memory search indexes from the database")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> rebuildSearchIndex() {
+        inMemorySearchService.rebuild();
+        return ResponseEntity.ok(ApiResponse.success("Search index rebuilt", inMemorySearchService.stats()));
+    }
+
+    @GetMapping("/notifications")
+    @Operation(summary = "Get search engine notification queue depth")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getNotificationQueueStats() {
+        return ResponseEntity.ok(ApiResponse.success(notificationQueue.stats()));
+    }
+
+    @PostMapping("/notifications/flush")
+    @Operation(summary = "Send due search engine notifications now")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> flushNotificationQueue() {
+        notificationQueue.flush();
+        return ResponseEntity.ok(ApiResponse.success("Notification queue flushed", notificationQueue.stats()));
+    }
+
+    @GetMapping("/executors")
+    @Operation(summary = "Get thread pool statistics (active threads, queue length, rejections)")
+    public ResponseEntity<ApiResponse<List<ExecutorStatsResponse>>> getExecutorStats() {
+        List<ExecutorStatsResponse> stats = executors.entrySet().stream()
+                .map(entry -> ExecutorStatsResponse.from(entry.getKey(), entry.getValue()))
+                .toList();
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+
+    @GetMapping("/routes")
+    @Operation(summary = "Get the most query-heavy routes (JDBC statements, rows and DB time per request)")
+    public ResponseEntity<ApiResponse<List<RouteQueryStatsResponse>>> getRouteStats(
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(routeStatistics.top(Math.clamp(limit, 1, 200))));
+    }
+
+    @DeleteMapping("/routes")
+    @Operation(summary = "Reset route query statistics")
+    public ResponseEntity<ApiResponse<Void>> resetRouteStats() {
+        routeStatistics.reset();
+        return ResponseEntity.ok(ApiResponse.success("Route statistics reset", null));
+    }
+}
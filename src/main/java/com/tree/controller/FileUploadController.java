@@ -1,18 +1,21 @@
 package com.tree.controller;
 
 import com.tree.dto.ApiResponse;
+import com.tree.dto.upload.UploadResponse;
+import com.tree.dto.upload.UploadResult;
 import com.tree.service.FileStorageService;
+import com.tree.service.ImageProcessingService;
+import com.tree.service.StreamingUploadService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin/upload")
@@ -21,73 +24,83 @@ import java.util.Map;
 public class FileUploadController {
 
     private final FileStorageService fileStorageService;
+    private final ImageProcessingService imageProcessingService;
+    private final StreamingUploadService streamingUploadService;
 
     @PostMapping
     @Operation(summary = "Upload single file")
-    public ResponseEntity<ApiResponse<Map<String, String>>> uploadFile(
+    public ResponseEntity<ApiResponse<UploadResponse>> uploadFile(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "folder", defaultValue = "articles") String folder) {
 
         String filePath = fileStorageService.storeFile(file, folder);
 
-        Map<String, String> result = new HashMap<>();
-        result.put("url", filePath);
-        result.put("filename", filePath.substring(filePath.lastIndexOf("/") + 1));
-
-        return ResponseEntity.ok(ApiResponse.success("File uploaded successfully", result));
+        return ResponseEntity.ok(ApiResponse.success("File uploaded successfully", imageProcessingService.process(filePath)));
     }
 
     @PostMapping("/multiple")
     @Operation(summary = "Upload multiple files")
-    public ResponseEntity<ApiResponse<List<Map<String, String>>>> uploadMultipleFiles(
+    public ResponseEntity<ApiResponse<List<UploadResponse>>> uploadMultipleFiles(
             @RequestParam("files") MultipartFile[] files,
             @RequestParam(value = "folder", defaultValue = "articles") String folder) {
 
-        List<Map<String, String>> results = new ArrayList<>();
+        List<UploadResponse> results = new ArrayList<>();
 
         for (MultipartFile file : files) {
             String filePath = fileStorageService.storeFile(file, folder);
-
-            Map<String, String> result = new HashMap<>();
-            result.put("url", filePath);
-            result.put("filename", filePath.substring(filePath.lastIndexOf("/") + 1));
-            results.add(result);
+            results.add(imageProcessingService.process(filePath));
         }
 
         return ResponseEntity.ok(ApiResponse.success("Files uploaded successfully", results));
     }
 
+    @PostMapping("/stream/{folder}")
+    @Operation(summary = "Upload multiple files, streamed",
+            description = "multipart/form-data read part by part as it arrives; files are stored concurrently "
+                    + "and each gets its own success or error")
+    public ResponseEntity<ApiResponse<List<UploadResult>>> uploadStreaming(
+            @PathVariable String folder,
+            HttpServletRequest request) {
+
+        // Folder is a path variable: a query or form parameter would make the container parse the body
+        List<UploadResult> results = streamingUploadService.storeAll(request, folder);
+        long stored = results.stream().filter(UploadResult::isSuccess).count();
+
+        return ResponseEntity.ok(ApiResponse.success(
+                "Uploaded " + stored + " of " + results.size() + " files", results));
+    }
+
     @PostMapping("/category")
     @Operation(summary = "Upload category image")
-    public ResponseEntity<ApiResponse<Map<String, String>>> uploadCategoryImage(
+    public ResponseEntity<ApiResponse<UploadResponse>> uploadCategoryImage(
             @RequestParam("file") MultipartFile file) {
         return uploadFile(file, "categories");
     }
 
     @PostMapping("/product")
     @Operation(summary = "Upload product image")
-    public ResponseEntity<ApiResponse<Map<String, String>>> uploadProductImage(
+    public ResponseEntity<ApiResponse<UploadResponse>> uploadProductImage(
             @RequestParam("file") MultipartFile file) {
         return uploadFile(file, "products");
     }
 
     @PostMapping("/banner")
     @Operation(summary = "Upload banner image")
-    public ResponseEntity<ApiResponse<Map<String, String>>> uploadBannerImage(
+    public ResponseEntity<ApiResponse<UploadResponse>> uploadBannerImage(
             @RequestParam("file") MultipartFile file) {
         return uploadFile(file, "banners");
     }
 
     @PostMapping("/logo")
     @Operation(summary = "Upload logo image")
-    public ResponseEntity<ApiResponse<Map<String, String>>> uploadLogoImage(
+    public ResponseEntity<ApiResponse<UploadResponse>> uploadLogoImage(
             @RequestParam("file") MultipartFile file) {
         return uploadFile(file, "logos");
     }
 
     @PostMapping("/article")
     @Operation(summary = "Upload article image")
-    public ResponseEntity<ApiResponse<Map<String, String>>> uploadArticleImage(
+    public ResponseEntity<ApiResponse<UploadResponse>> uploadArticleImage(
             @RequestParam("file") MultipartFile file) {
         return uploadFile(file, "articles");
     }
@@ -96,6 +109,9 @@ public class FileUploadController {
     @Operation(summary = "Delete file")
     public ResponseEntity<ApiResponse<Void>> deleteFile(@RequestParam("path") String filePath) {
         boolean deleted = fileStorageService.deleteFile(filePath);
+        if (FileStorageService.isContentAddressed(filePath)) {
+            return ResponseEntity.ok(ApiResponse.success("File kept: content-addressed files may be shared", null));
+        }
         if (deleted) {
             return ResponseEntity.ok(ApiResponse.success("File deleted successfully", null));
         }
@@ -2,9 +2,11 @@ package com.tree.controller;
 
 import com.tree.dto.ApiResponse;
 import com.tree.dto.BannerDTO;
+import com.tree.dto.CursorPageResponse;
 import com.tree.dto.PageResponse;
 import com.tree.dto.SiteSettingsDTO;
 import com.tree.dto.article.ArticleResponse;
+import com.tree.dto.article.ArticleSummaryResponse;
 import com.tree.dto.category.CategoryResponse;
 import com.tree.dto.product.ProductResponse;
 import com.tree.dto.seo.SeoSettingsResponse;
@@ -13,6 +15,7 @@ import com.tree.service.BannerService;
 import com.tree.service.CategoryService;
 import com.tree.service.ProductService;
 import com.tree.service.SeoSettingsService;
+import com.tree.service.SettingsSnapshotCache;
 import com.tree.service.SiteSettingsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,6 +23,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -42,7 +46,7 @@ public class PublicController {
     @GetMapping("/site-settings")
     @Operation(summary = "Get site settings")
     public ResponseEntity<ApiResponse<SiteSettingsDTO>> getSiteSettings() {
-        return ResponseEntity.ok(ApiResponse.success(siteSettingsService.getSettings()));
+        return revalidated(siteSettingsService.getSnapshot());
     }
 
     @GetMapping("/banners")
@@ -53,9 +57,18 @@ public class PublicController {
 
     @GetMapping("/articles")
     @Operation(summary = "Get published articles")
-    public ResponseEntity<ApiResponse<PageResponse<ArticleResponse>>> getArticles(
-            @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
-        return ResponseEntity.ok(ApiResponse.success(articleService.getPublishedArticles(pageable)));
+    public ResponseEntity<ApiResponse<PageResponse<ArticleSummaryResponse>>> getArticles(
+            @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(ApiResponse.success(articleService.getPublishedArticles(pageable, withTotal)));
+    }
+
+    @GetMapping("/feed/articles")
+    @Operation(summary = "Get published articles by cursor (infinite scroll, no totals)")
+    public ResponseEntity<ApiResponse<CursorPageResponse<ArticleSummaryResponse>>> getArticleFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(ApiResponse.success(articleService.getPublishedFeed(cursor, size)));
     }
 
     @GetMapping("/articles/{slug}")
@@ -92,24 +105,34 @@ public class PublicController {
 
     @GetMapping("/categories/{id}/articles")
     @Operation(summary = "Get articles by category")
-    public ResponseEntity<ApiResponse<PageResponse<ArticleResponse>>> getArticlesByCategory(
+    public ResponseEntity<ApiResponse<PageResponse<ArticleSummaryResponse>>> getArticlesByCategory(
             @PathVariable UUID id,
-            @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
-        return ResponseEntity.ok(ApiResponse.success(articleService.getArticlesByCategory(id, pageable)));
+            @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(ApiResponse.success(articleService.getArticlesByCategory(id, pageable, withTotal)));
     }
 
     @GetMapping("/seo")
     @Operation(summary = "Get SEO settings for sitemap/robots")
     public ResponseEntity<ApiResponse<SeoSettingsResponse>> getSeoSettings() {
-        return ResponseEntity.ok(ApiResponse.success(seoSettingsService.getSettings()));
+        return revalidated(seoSettingsService.getSnapshot());
     }
 
     // Product endpoints
     @GetMapping("/products")
     @Operation(summary = "Get active products")
     public ResponseEntity<ApiResponse<PageResponse<ProductResponse>>> getProducts(
-            @PageableDefault(size = 12, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
-        return ResponseEntity.ok(ApiResponse.success(productService.getActiveProducts(pageable)));
+            @PageableDefault(size = 12, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(ApiResponse.success(productService.getActiveProducts(pageable, withTotal)));
+    }
+
+    @GetMapping("/feed/products")
+    @Operation(summary = "Get active products by cursor (infinite scroll, no totals)")
+    public ResponseEntity<ApiResponse<CursorPageResponse<ProductResponse>>> getProductFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size) {
+        return ResponseEntity.ok(ApiResponse.success(productService.getActiveFeed(cursor, size)));
     }
 
     @GetMapping("/products/{slug}")
@@ -136,8 +159,9 @@ public class PublicController {
     @Operation(summary = "Get products by category")
     public ResponseEntity<ApiResponse<PageResponse<ProductResponse>>> getProductsByCategory(
             @PathVariable UUID categoryId,
-            @PageableDefault(size = 12, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
-        return ResponseEntity.ok(ApiResponse.success(productService.getProductsByCategory(categoryId, pageable)));
+            @PageableDefault(size = 12, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
+        return ResponseEntity.ok(ApiResponse.success(productService.getProductsByCategory(categoryId, pageable, withTotal)));
     }
 
     @GetMapping("/products/{slug}/related")
@@ -150,4 +174,12 @@ public class PublicController {
         }
         return ResponseEntity.ok(ApiResponse.success(List.of()));
     }
+
+    // Clients revalidate every time; a matching If-None-Match gets a 304 with no body
+    private static <T> ResponseEntity<ApiResponse<T>> revalidated(SettingsSnapshotCache.Snapshot<T> snapshot) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(snapshot.eTag())
+                .body(ApiResponse.success(snapshot.value()));
+    }
 }
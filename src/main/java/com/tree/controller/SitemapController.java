@@ -1,28 +1,30 @@
 package com.tree.controller;
 
-import com.tree.entity.Article;
-import com.tree.entity.Category;
-import com.tree.repository.ArticleRepository;
-import com.tree.repository.CategoryRepository;
+import com.tree.service.SitemapService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.time.Duration;
 
 @RestController
 @RequiredArgsConstructor
 @Tag(name = "Sitemap", description = "Sitemap generation")
 public class SitemapController {
 
-    private final ArticleRepository articleRepository;
-    private final CategoryRepository categoryRepository;
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+    private static final Duration SITEMAP_MAX_AGE = Duration.ofHours(1);
+
+    private final SitemapService sitemapService;
 
     @Value("${app.site-url:http://localhost:3000}")
     private String siteUrl;
@@ -30,57 +32,37 @@ public class SitemapController {
     @Value("${indexnow.key:}")
     private String indexNowKey;
 
-    @GetMapping(value = "/sitemap.xml", produces = MediaType.APPLICATION_XML_VALUE)
-    @Operation(summary = "Generate sitemap.xml")
-    public ResponseEntity<String> getSitemap() {
-        StringBuilder xml = new StringBuilder();
-        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        xml.append("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
-
-        // Homepage
-        xml.append("  <url>\n");
-        xml.append("    <loc>").append(siteUrl).append("/</loc>\n");
-        xml.append("    <changefreq>daily</changefreq>\n");
-        xml.append("    <priority>1.0</priority>\n");
-        xml.append("  </url>\n");
-
-        // Articles page
-        xml.append("  <url>\n");
-        xml.append("    <loc>").append(siteUrl).append("/articles</loc>\n");
-        xml.append("    <changefreq>daily</changefreq>\n");
-        xml.append("    <priority>0.9</priority>\n");
-        xml.append("  </url>\n");
-
-        // Published articles
-        List<Article> articles = articleRepository.findByStatusOrderByCreatedAtDesc(Article.Status.PUBLISHED);
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE;
-
-        for (Article article : articles) {
-            xml.append("  <url>\n");
-            xml.append("    <loc>").append(siteUrl).append("/article/").append(escapeXml(article.getSlug())).append("</loc>\n");
-            if (article.getUpdatedAt() != null) {
-                xml.append("    <lastmod>").append(article.getUpdatedAt().toLocalDate().format(formatter)).append("</lastmod>\n");
-            }
-            xml.append("    <changefreq>weekly</changefreq>\n");
-            xml.append("    <priority>0.8</priority>\n");
-            xml.append("  </url>\n");
-        }
+    @GetMapping("/sitemap.xml")
+    @Operation(summary = "Sitemap (or sitemap index when split into several files)")
+    public ResponseEntity<byte[]> getSitemap(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        SitemapService.Sitemap sitemap = sitemapService.get();
+        return xml(sitemap.root(), sitemap, acceptEncoding);
+    }
 
-        // Active categories
-        List<Category> categories = categoryRepository.findByActiveTrueOrderBySortOrderAsc();
-        for (Category category : categories) {
-            xml.append("  <url>\n");
-            xml.append("    <loc>").append(siteUrl).append("/category/").append(escapeXml(category.getSlug())).append("</loc>\n");
-            xml.append("    <changefreq>weekly</changefreq>\n");
-            xml.append("    <priority>0.7</priority>\n");
-            xml.append("  </url>\n");
-        }
+    @GetMapping("/sitemap.xml.gz")
+    @Operation(summary = "Gzipped sitemap (or sitemap index)")
+    public ResponseEntity<byte[]> getSitemapGzip() {
+        SitemapService.Sitemap sitemap = sitemapService.get();
+        return gzip(sitemap.root(), sitemap);
+    }
 
-        xml.append("</urlset>");
+    @GetMapping("/sitemap-{number}.xml")
+    @Operation(summary = "Sitemap file from the sitemap index")
+    public ResponseEntity<byte[]> getSitemapShard(
+            @PathVariable int number,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        SitemapService.Sitemap sitemap = sitemapService.get();
+        SitemapService.Document shard = sitemap.shard(number);
+        return shard != null ? xml(shard, sitemap, acceptEncoding) : ResponseEntity.notFound().build();
+    }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_XML)
-                .body(xml.toString());
+    @GetMapping("/sitemap-{number}.xml.gz")
+    @Operation(summary = "Gzipped sitemap file from the sitemap index")
+    public ResponseEntity<byte[]> getSitemapShardGzip(@PathVariable int number) {
+        SitemapService.Sitemap sitemap = sitemapService.get();
+        SitemapService.Document shard = sitemap.shard(number);
+        return shard != null ? gzip(shard, sitemap) : ResponseEntity.notFound().build();
     }
 
     @GetMapping(value = "/robots.txt", produces = MediaType.TEXT_PLAIN_VALUE)
@@ -95,7 +77,7 @@ public class SitemapController {
 
     @GetMapping(value = "/{key}.txt", produces = MediaType.TEXT_PLAIN_VALUE)
     @Operation(summary = "IndexNow key verification file")
-    public ResponseEntity<String> getIndexNowKey(@org.springframework.web.bind.annotation.PathVariable String key) {
+    public ResponseEntity<String> getIndexNowKey(@PathVariable String key) {
         if (indexNowKey == null || indexNowKey.isBlank() || !indexNowKey.equals(key)) {
             return ResponseEntity.notFound().build();
         }
@@ -104,13 +86,28 @@ public class SitemapController {
                 .body(indexNowKey);
     }
 
-    private String escapeXml(String value) {
-        if (value == null) return "";
-        return value
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&apos;");
+    // Pre-compressed body when the client accepts gzip
+    private ResponseEntity<byte[]> xml(SitemapService.Document document, SitemapService.Sitemap sitemap,
+                                       String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = cached(sitemap)
+                .contentType(MediaType.APPLICATION_XML)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? document.gzip() : document.xml());
+    }
+
+    private ResponseEntity<byte[]> gzip(SitemapService.Document document, SitemapService.Sitemap sitemap) {
+        return cached(sitemap)
+                .contentType(GZIP)
+                .body(document.gzip());
+    }
+
+    private ResponseEntity.BodyBuilder cached(SitemapService.Sitemap sitemap) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(SITEMAP_MAX_AGE).cachePublic())
+                .lastModified(sitemap.generatedAt());
     }
 }
@@ -0,0 +1,293 @@
+package com.tree.controller;
+
+import com.tree.service.FileStorageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Serves /uploads/** straight from the upload directory.
+ *
+ * Bodies go out through Tomcat's sendfile (the kernel copies file to socket) when
+ * the connector supports it, otherwise through FileChannel.transferTo. Responses
+ * carry a strong ETag and Last-Modified, answer conditional requests with 304,
+ * honour a single byte range, and prefer a .br/.gz sibling for compressible types.
+ * Content-addressed files are cached as immutable for a year.
+ */
+@RestController
+@Tag(name = "Uploads", description = "Uploaded files")
+public class UploadController {
+
+    // Tomcat's NIO connector sets the first attribute and then sends the file named by the others
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // Same threshold as Tomcat's DefaultServlet: below it a plain write is cheaper than a sendfile hand-off
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    private static final CacheControl DEFAULT = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+
+    private static final Set<String> COMPRESSIBLE_TYPES = Set.of(
+            "image/svg+xml", "application/json", "application/xml", "text/plain", "text/css", "text/xml");
+
+    private final Path uploadRoot;
+
+    public UploadController(@Value("${app.upload.dir:uploads}") String uploadDir) {
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    @RequestMapping(value = "/uploads/{*path}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    @Operation(summary = "Uploaded file (ETag, Last-Modified, byte ranges, precompressed variants)")
+    public void getUpload(@PathVariable String path, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path file = resolve(path);
+        BasicFileAttributes attributes = file != null ? attributes(file) : null;
+        if (attributes == null || !attributes.isRegularFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .map(MediaType::toString)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        boolean compressible = COMPRESSIBLE_TYPES.contains(contentType);
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+
+        // Ranges apply to the identity file only, so a range request never gets an encoded body
+        Representation representation = compressible && rangeHeader == null
+                ? precompressed(file, request.getHeader(HttpHeaders.ACCEPT_ENCODING))
+                : null;
+        if (representation == null) {
+            representation = new Representation(file, attributes.size(), null);
+        }
+
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String eTag = eTag(path, file, attributes, representation.encoding());
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                (FileStorageService.isContentAddressed("/uploads" + path) ? IMMUTABLE : DEFAULT).getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (compressible) {
+            // Added, not set: CORS processing already put Origin in Vary
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if ("image/svg+xml".equals(contentType)) {
+            // An SVG opened directly must not run script or load anything
+            response.setHeader("Content-Security-Policy", "default-src 'none'; style-src 'unsafe-inline'; sandbox");
+        }
+
+        // Sets ETag/Last-Modified and answers If-None-Match/If-Modified-Since (304) and If-Match (412)
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            return;
+        }
+
+        response.setContentType(contentType);
+        if (representation.encoding() != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, representation.encoding());
+        }
+
+        long length = representation.size();
+        long start = 0;
+        long end = length - 1;
+        if (rangeHeader != null && ifRangeMatches(request, eTag, lastModified)) {
+            ByteRange range = ByteRange.parse(rangeHeader, length);
+            if (range == ByteRange.UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (range != null) {
+                start = range.start();
+                end = range.end();
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (!RequestMethod.HEAD.name().equals(request.getMethod()) && count > 0) {
+            send(request, response, representation.file(), start, count);
+        }
+    }
+
+    private void send(HttpServletRequest request, HttpServletResponse response, Path file, long start, long count)
+            throws IOException {
+        if (count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Written by the connector after this handler returns; end is exclusive
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    // Brotli first, then gzip, if the client accepts it and the sibling file exists
+    private static Representation precompressed(Path file, String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        for (String[] encoding : new String[][] {{"br", ".br"}, {"gzip", ".gz"}}) {
+            if (!accepts(acceptEncoding, encoding[0])) {
+                continue;
+            }
+            Path sibling = file.resolveSibling(file.getFileName() + encoding[1]);
+            BasicFileAttributes attributes = attributes(sibling);
+            if (attributes != null && attributes.isRegularFile()) {
+                return new Representation(sibling, attributes.size(), encoding[0]);
+            }
+        }
+        return null;
+    }
+
+    // "gzip, deflate, br;q=0" accepts gzip but not br
+    private static boolean accepts(String acceptEncoding, String coding) {
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (tokens[0].trim().equalsIgnoreCase(coding)) {
+                for (int i = 1; i < tokens.length; i++) {
+                    String parameter = tokens[i].trim();
+                    if (parameter.startsWith("q=") && isZero(parameter.substring(2))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZero(String quality) {
+        try {
+            return Double.parseDouble(quality) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Content-addressed names already are a digest; other files use size and mtime (they are only ever replaced whole)
+    private static String eTag(String path, Path file, BasicFileAttributes attributes, String encoding) {
+        String tag = FileStorageService.isContentAddressed("/uploads" + path)
+                ? file.getFileName().toString()
+                : Long.toHexString(attributes.size()) + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis());
+        return "\"" + tag + (encoding != null ? "-" + encoding : "") + "\"";
+    }
+
+    // If-Range: serve the range only if the validator still matches (strong ETag or exact date)
+    private static boolean ifRangeMatches(HttpServletRequest request, String eTag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Refuses anything outside the upload directory and dot-files (in-progress temp files)
+    private Path resolve(String path) {
+        Path file = uploadRoot.resolve(path.substring(1)).normalize();
+        if (!file.startsWith(uploadRoot) || file.equals(uploadRoot)) {
+            return null;
+        }
+        for (Path segment : uploadRoot.relativize(file)) {
+            if (segment.toString().startsWith(".")) {
+                return null;
+            }
+        }
+        return file;
+    }
+
+    private static BasicFileAttributes attributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private record Representation(Path file, long size, String encoding) {}
+
+    /**
+     * One "bytes=" range resolved against the representation length
+     */
+    record ByteRange(long start, long end) {
+
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        // "bytes=a-b", "bytes=a-" or "bytes=-n"; null (serve everything) when malformed or multi-range
+        static ByteRange parse(String header, long length) {
+            if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+                return null;
+            }
+            String spec = header.substring(6).trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            try {
+                String first = spec.substring(0, dash).trim();
+                String last = spec.substring(dash + 1).trim();
+                if (first.isEmpty()) {
+                    // Suffix range: the last n bytes
+                    long suffix = Long.parseLong(last);
+                    if (suffix <= 0 || length == 0) {
+                        return UNSATISFIABLE;
+                    }
+                    return new ByteRange(Math.max(0, length - suffix), length - 1);
+                }
+                long start = Long.parseLong(first);
+                long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+                if (start < 0 || (!last.isEmpty() && Long.parseLong(last) < start)) {
+                    return null;
+                }
+                return start >= length ? UNSATISFIABLE : new ByteRange(start, end);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.tree.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Tags each request with a correlation id (X-Request-Id, taken from the request or generated),
+ * exposes it to logs as MDC "correlationId" and records the request's JDBC work per route.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String MDC_KEY = "correlationId";
+
+    private static final int MAX_ID_LENGTH = 64;
+
+    private final RouteStatistics routeStatistics;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String correlationId = correlationId(request);
+        response.setHeader(HEADER, correlationId);
+        MDC.put(MDC_KEY, correlationId);
+        RequestMetrics metrics = RequestMetrics.begin(correlationId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestMetrics.end();
+            String route = route(request);
+            routeStatistics.record(request.getMethod(), route, metrics);
+            log.debug("{} {} -> {}: {} statements, {} rows, {} ms in DB, {} ms total",
+                    request.getMethod(), route, response.getStatus(), metrics.getStatements(), metrics.getRows(),
+                    metrics.getDbNanos() / 1_000_000, metrics.getElapsedNanos() / 1_000_000);
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    // Trust a client-supplied id only if it is short and printable
+    private static String correlationId(HttpServletRequest request) {
+        String header = request.getHeader(HEADER);
+        if (StringUtils.hasText(header) && header.length() <= MAX_ID_LENGTH
+                && header.chars().allMatch(c -> c > 0x20 && c < 0x7f)) {
+            return header;
+        }
+        return UUID.randomUUID().toString();
+    }
+
+    // Handler pattern keeps the route key bounded; requests no handler matched share one key
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNMATCHED";
+    }
+}
@@ -0,0 +1,154 @@
+package com.tree.diagnostics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource wrapper that feeds RequestMetrics: every execute* call counts as one
+ * statement (a JDBC batch counts once) and every ResultSet.next() that returns a row
+ * counts as one row read. Time inside execute* and next() is added to DB time.
+ *
+ * Outside an HTTP request the proxies only delegate. unwrap() still reaches the
+ * pool, so pool metrics and health checks see the real DataSource.
+ */
+public class JdbcMetricsDataSource extends DelegatingDataSource {
+
+    public JdbcMetricsDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(JdbcMetricsDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Delegates to the target; proxies compare by identity so JDBC resource
+     * registries keyed by Statement/ResultSet keep working
+     */
+    private abstract static class Handler implements InvocationHandler {
+        final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "equals" -> args.length == 1 && proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> handle(proxy, method, args);
+            };
+        }
+
+        abstract Object handle(Object proxy, Method method, Object[] args) throws Throwable;
+
+        Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static final class ConnectionHandler extends Handler {
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+
+        @Override
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = call(method, args);
+            Connection connection = (Connection) proxy;
+            return switch (method.getName()) {
+                case "createStatement" -> proxy(Statement.class, new StatementHandler(result, connection));
+                case "prepareStatement" -> proxy(PreparedStatement.class, new StatementHandler(result, connection));
+                case "prepareCall" -> proxy(CallableStatement.class, new StatementHandler(result, connection));
+                default -> result;
+            };
+        }
+    }
+
+    private static final class StatementHandler extends Handler {
+        private final Connection connection;
+
+        StatementHandler(Object target, Connection connection) {
+            super(target);
+            this.connection = connection;
+        }
+
+        @Override
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("getConnection".equals(name)) {
+                return connection;
+            }
+            RequestMetrics metrics = RequestMetrics.current();
+            Object result;
+            if (metrics != null && name.startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    result = call(method, args);
+                } finally {
+                    metrics.statementExecuted(System.nanoTime() - start);
+                }
+            } else {
+                result = call(method, args);
+            }
+            if (result instanceof ResultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler(result, (Statement) proxy));
+            }
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler extends Handler {
+        private final Statement statement;
+
+        ResultSetHandler(Object target, Statement statement) {
+            super(target);
+            this.statement = statement;
+        }
+
+        @Override
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("getStatement".equals(method.getName())) {
+                return statement;
+            }
+            RequestMetrics metrics = RequestMetrics.current();
+            if (metrics == null || !"next".equals(method.getName())) {
+                return call(method, args);
+            }
+            long start = System.nanoTime();
+            Object result = call(method, args);
+            metrics.fetchTime(System.nanoTime() - start);
+            if (Boolean.TRUE.equals(result)) {
+                metrics.rowRead();
+            }
+            return result;
+        }
+    }
+}
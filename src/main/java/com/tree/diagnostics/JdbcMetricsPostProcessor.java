@@ -0,0 +1,23 @@
+package com.tree.diagnostics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in JdbcMetricsDataSource (app.diagnostics.sql-metrics.enabled)
+ */
+@Component
+@ConditionalOnProperty(name = "app.diagnostics.sql-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class JdbcMetricsPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof JdbcMetricsDataSource)) {
+            return new JdbcMetricsDataSource(dataSource);
+        }
+        return bean;
+    }
+}
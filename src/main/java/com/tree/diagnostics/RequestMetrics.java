@@ -0,0 +1,73 @@
+package com.tree.diagnostics;
+
+/**
+ * JDBC work done by the current HTTP request: statements executed, rows read and
+ * time spent inside JDBC calls.
+ *
+ * Bound to the request thread by CorrelationIdFilter and updated by the
+ * JdbcMetricsDataSource proxies; work handed to other threads is not attributed.
+ */
+public final class RequestMetrics {
+
+    private static final ThreadLocal<RequestMetrics> CURRENT = new ThreadLocal<>();
+
+    private final String correlationId;
+    private final long startNanos = System.nanoTime();
+    private long statements;
+    private long rows;
+    private long dbNanos;
+
+    private RequestMetrics(String correlationId) {
+        this.correlationId = correlationId;
+    }
+
+    static RequestMetrics begin(String correlationId) {
+        RequestMetrics metrics = new RequestMetrics(correlationId);
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Metrics of the request being handled on this thread, or null outside a request
+     */
+    public static RequestMetrics current() {
+        return CURRENT.get();
+    }
+
+    void statementExecuted(long nanos) {
+        statements++;
+        dbNanos += nanos;
+    }
+
+    void rowRead() {
+        rows++;
+    }
+
+    void fetchTime(long nanos) {
+        dbNanos += nanos;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+}
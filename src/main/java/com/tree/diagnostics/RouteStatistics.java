@@ -0,0 +1,111 @@
+package com.tree.diagnostics;
+
+import com.tree.dto.RouteQueryStatsResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-route JDBC totals (statements, rows, DB time), published as Micrometer meters
+ * and kept in memory for the "most query-heavy routes" diagnostics view.
+ *
+ * Routes are handler patterns (e.g. GET /api/public/articles/{slug}), so the key
+ * space is bounded by the number of endpoints.
+ */
+@Component
+public class RouteStatistics {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, RouteStats> routes = new ConcurrentHashMap<>();
+
+    public RouteStatistics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String method, String route, RequestMetrics metrics) {
+        RouteStats stats = routes.computeIfAbsent(method + " " + route, key -> new RouteStats(method, route));
+        stats.requests.increment();
+        stats.statements.add(metrics.getStatements());
+        stats.maxStatements.accumulate(metrics.getStatements());
+        stats.rows.add(metrics.getRows());
+        stats.dbNanos.add(metrics.getDbNanos());
+
+        stats.statementSummary.record(metrics.getStatements());
+        stats.rowSummary.record(metrics.getRows());
+        stats.dbTimer.record(metrics.getDbNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Routes ordered by average statements per request, heaviest first
+     */
+    public List<RouteQueryStatsResponse> top(int limit) {
+        return routes.values().stream()
+                .map(RouteStats::snapshot)
+                .sorted(Comparator.comparingDouble(RouteQueryStatsResponse::getAvgStatements).reversed()
+                        .thenComparing(RouteQueryStatsResponse::getRequests, Comparator.reverseOrder()))
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        routes.clear();
+    }
+
+    private final class RouteStats {
+        private final String method;
+        private final String route;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder dbNanos = new LongAdder();
+        private final DistributionSummary statementSummary;
+        private final DistributionSummary rowSummary;
+        private final Timer dbTimer;
+
+        RouteStats(String method, String route) {
+            this.method = method;
+            this.route = route;
+            this.statementSummary = DistributionSummary.builder("http.server.requests.db.statements")
+                    .description("JDBC statements executed per request")
+                    .tags("method", method, "uri", route)
+                    .register(meterRegistry);
+            this.rowSummary = DistributionSummary.builder("http.server.requests.db.rows")
+                    .description("Rows read from JDBC result sets per request")
+                    .tags("method", method, "uri", route)
+                    .register(meterRegistry);
+            this.dbTimer = Timer.builder("http.server.requests.db.time")
+                    .description("Time spent in JDBC calls per request")
+                    .tags("method", method, "uri", route)
+                    .register(meterRegistry);
+        }
+
+        RouteQueryStatsResponse snapshot() {
+            long requestCount = requests.sum();
+            long statementCount = statements.sum();
+            long rowCount = rows.sum();
+            double dbMs = dbNanos.sum() / 1_000_000.0;
+            return RouteQueryStatsResponse.builder()
+                    .method(method)
+                    .route(route)
+                    .requests(requestCount)
+                    .statements(statementCount)
+                    .avgStatements(requestCount == 0 ? 0 : (double) statementCount / requestCount)
+                    .maxStatements(maxStatements.get())
+                    .rows(rowCount)
+                    .avgRows(requestCount == 0 ? 0 : (double) rowCount / requestCount)
+                    .dbTimeMs(dbMs)
+                    .avgDbTimeMs(requestCount == 0 ? 0 : dbMs / requestCount)
+                    .build();
+        }
+    }
+}
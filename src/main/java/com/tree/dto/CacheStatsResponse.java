@@ -0,0 +1,24 @@
+package com.tree.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponse {
+    private String name;
+    private long entries;
+    private long weightedSizeBytes;
+    private long maxWeightBytes;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private long evictionWeightBytes;
+    private long loadFailureCount;
+    private double averageLoadPenaltyMs;
+}
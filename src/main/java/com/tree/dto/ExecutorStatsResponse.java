@@ -0,0 +1,42 @@
+package com.tree.dto;
+
+import com.tree.config.CountingRejectedExecutionHandler;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutorStatsResponse {
+    private String name;
+    private int corePoolSize;
+    private int maxPoolSize;
+    private int poolSize;
+    private int activeCount;
+    private int queueSize;
+    private int queueRemainingCapacity;
+    private long completedTaskCount;
+    private long rejectedCount;
+
+    public static ExecutorStatsResponse from(String name, ThreadPoolTaskExecutor executor) {
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        return ExecutorStatsResponse.builder()
+                .name(name)
+                .corePoolSize(pool.getCorePoolSize())
+                .maxPoolSize(pool.getMaximumPoolSize())
+                .poolSize(pool.getPoolSize())
+                .activeCount(pool.getActiveCount())
+                .queueSize(pool.getQueue().size())
+                .queueRemainingCapacity(pool.getQueue().remainingCapacity())
+                .completedTaskCount(pool.getCompletedTaskCount())
+                .rejectedCount(pool.getRejectedExecutionHandler() instanceof CountingRejectedExecutionHandler counter
+                        ? counter.getRejectedCount() : 0)
+                .build();
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -16,8 +18,9 @@ public class PageResponse<T> {
     private List<T> content;
     private int page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    // Null when the page was served without a count query
+    private Long totalElements;
+    private Integer totalPages;
     private boolean first;
     private boolean last;
 
@@ -32,4 +35,24 @@ public class PageResponse<T> {
                 .last(page.isLast())
                 .build();
     }
+
+    /**
+     * Page without totals: no COUNT query, only first/last
+     */
+    public static <T> PageResponse<T> from(Slice<T> slice) {
+        return PageResponse.<T>builder()
+                .content(slice.getContent())
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .first(slice.isFirst())
+                .last(slice.isLast())
+                .build();
+    }
+
+    /**
+     * Page with a total obtained separately (e.g. from CountCache)
+     */
+    public static <T> PageResponse<T> from(Slice<T> slice, long total) {
+        return from(new PageImpl<>(slice.getContent(), slice.getPageable(), total));
+    }
 }
@@ -0,0 +1,23 @@
+package com.tree.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteQueryStatsResponse {
+    private String method;
+    private String route;
+    private long requests;
+    private long statements;
+    private double avgStatements;
+    private long maxStatements;
+    private long rows;
+    private double avgRows;
+    private double dbTimeMs;
+    private double avgDbTimeMs;
+}
@@ -1,12 +1,16 @@
 package com.tree.dto;
 
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 @Data
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class SiteSettingsDTO {
@@ -56,6 +60,27 @@ public class SiteSettingsDTO {
     private String colorPalette;
     private String borderRadius;
 
+    /**
+     * Deep copy, so a caller can change it without touching a shared instance
+     */
+    public SiteSettingsDTO copy() {
+        return toBuilder()
+                .services(copyOf(services, item -> new ServiceItem(item.getTitle(), item.getDescription(),
+                        item.getImageUrl(), item.getLinkText(), item.getLinkUrl())))
+                .navLeftMenu(copyOf(navLeftMenu, item -> new MenuItem(item.getLabel(), item.getHref())))
+                .navRightMenu(copyOf(navRightMenu, item -> new MenuItem(item.getLabel(), item.getHref())))
+                .build();
+    }
+
+    private static <T> List<T> copyOf(List<T> items, UnaryOperator<T> copier) {
+        if (items == null) {
+            return null;
+        }
+        List<T> copy = new ArrayList<>(items.size());
+        items.forEach(item -> copy.add(copier.apply(item)));
+        return copy;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
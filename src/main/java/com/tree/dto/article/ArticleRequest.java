@@ -19,8 +19,8 @@ public class ArticleRequest {
     // Content blocks as JSON - for block editor
     private String contentBlocks;
 
-    // Table of contents as JSON - auto-generated from headings
-    private String tableOfContents;
+    // No tableOfContents: the server generates it from the markdown headings on save. Editors
+    // that PUT back a loaded ArticleResponse still send one; it is ignored as an unknown property.
 
     // Featured Image
     private String featuredImage;
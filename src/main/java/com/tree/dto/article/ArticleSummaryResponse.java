@@ -0,0 +1,70 @@
+package com.tree.dto.article;
+
+import com.tree.repository.projection.ArticleSummaryView;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Article as shown in paginated lists; use ArticleResponse for the full article.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleSummaryResponse {
+    private String id;
+    private String title;
+    private String slug;
+    private String summary;
+    private String featuredImage;
+    private String featuredImageAlt;
+    private CategoryDto category;
+    private String status;
+    private Boolean isFeatured;
+    private Integer readingTime;
+    private Long viewCount;
+    private LocalDateTime publishedAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryDto {
+        private String id;
+        private String name;
+        private String slug;
+    }
+
+    public static ArticleSummaryResponse from(ArticleSummaryView view) {
+        ArticleSummaryResponseBuilder builder = ArticleSummaryResponse.builder()
+                .id(view.getId().toString())
+                .title(view.getTitle())
+                .slug(view.getSlug())
+                .summary(view.getSummary())
+                .featuredImage(view.getFeaturedImage())
+                .featuredImageAlt(view.getFeaturedImageAlt())
+                .status(view.getStatus().name())
+                .isFeatured(view.getIsFeatured())
+                .readingTime(view.getReadingTime())
+                .viewCount(view.getViewCount())
+                .publishedAt(view.getPublishedAt())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt());
+
+        if (view.getCategoryId() != null) {
+            builder.category(CategoryDto.builder()
+                    .id(view.getCategoryId().toString())
+                    .name(view.getCategoryName())
+                    .slug(view.getCategorySlug())
+                    .build());
+        }
+
+        return builder.build();
+    }
+}
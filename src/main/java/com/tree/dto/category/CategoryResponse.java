@@ -37,6 +37,19 @@ public class CategoryResponse {
 
     // Simple conversion without children (for flat list)
     public static CategoryResponse from(Category category) {
+        return baseBuilder(category)
+                .parentId(category.getParent() != null ? category.getParent().getId().toString() : null)
+                .parentName(category.getParent() != null ? category.getParent().getName() : null)
+                .level(category.getLevel())
+                .build();
+    }
+
+    // Tree node without parent lookups; parent and level are set by CategoryTreeAssembler
+    public static CategoryResponse treeNode(Category category) {
+        return baseBuilder(category).build();
+    }
+
+    private static CategoryResponseBuilder baseBuilder(Category category) {
         return CategoryResponse.builder()
                 .id(category.getId().toString())
                 .name(category.getName())
@@ -48,24 +61,9 @@ public class CategoryResponse {
                 .sectionSubtitle(category.getSectionSubtitle())
                 .sortOrder(category.getSortOrder())
                 .active(category.isActive())
-                .articleCount(category.getArticles() != null ? (int) category.getArticles().stream().filter(a -> !a.getDeleted()).count() : 0)
-                .parentId(category.getParent() != null ? category.getParent().getId().toString() : null)
-                .parentName(category.getParent() != null ? category.getParent().getName() : null)
-                .level(category.getLevel())
+                .articleCount(category.getArticleCount() != null ? category.getArticleCount() : 0)
                 .createdAt(category.getCreatedAt())
                 .deleted(category.getDeleted())
-                .deletedAt(category.getDeletedAt())
-                .build();
-    }
-
-    // Recursive conversion with children (for tree structure)
-    public static CategoryResponse fromWithChildren(Category category) {
-        CategoryResponse response = from(category);
-        if (category.getChildren() != null && !category.getChildren().isEmpty()) {
-            response.setChildren(category.getChildren().stream()
-                    .map(CategoryResponse::fromWithChildren)
-                    .toList());
-        }
-        return response;
+                .deletedAt(category.getDeletedAt());
     }
 }
@@ -0,0 +1,33 @@
+package com.tree.dto.upload;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UploadResponse {
+    private String url;
+    private String filename;
+    // Intrinsic size of raster uploads, read from the image header
+    private Integer width;
+    private Integer height;
+    // Resized and WebP derivatives; written in the background, so they may 404 for a moment after upload
+    private List<Variant> variants;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Variant {
+        private String url;
+        private int width;
+        private String format;
+    }
+}
@@ -0,0 +1,31 @@
+package com.tree.dto.upload;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one file in a multi-file upload: the stored file, or why it was rejected
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UploadResult {
+    // Name as sent by the client
+    private String filename;
+    private boolean success;
+    private UploadResponse file;
+    private String error;
+
+    public static UploadResult stored(String filename, UploadResponse file) {
+        return UploadResult.builder().filename(filename).success(true).file(file).build();
+    }
+
+    public static UploadResult failed(String filename, String error) {
+        return UploadResult.builder().filename(filename).success(false).error(error).build();
+    }
+}
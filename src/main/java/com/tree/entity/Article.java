@@ -6,7 +6,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "articles")
+@Table(name = "articles", indexes = {
+        // Keyset feed: WHERE status/deleted ORDER BY created_at, id
+        @Index(name = "idx_articles_feed", columnList = "status, deleted, created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,6 +32,13 @@ public class Article extends BaseEntity {
     @Column(name = "content_html", columnDefinition = "TEXT")
     private String contentHtml;
 
+    // SHA-256 of content and the MarkdownUtil.RENDER_VERSION that produced contentHtml
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "render_version")
+    private Integer renderVersion;
+
     // Content blocks as JSON - for block editor
     @Column(name = "content_blocks", columnDefinition = "TEXT")
     private String contentBlocks;
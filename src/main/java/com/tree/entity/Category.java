@@ -55,6 +55,14 @@ public class Category extends BaseEntity {
     @Builder.Default
     private List<Article> articles = new ArrayList<>();
 
+    // Non-deleted article count, maintained on article writes so DTO mapping never loads articles.
+    // Only changed by CategoryRepository's bulk updates, never by flushing this entity.
+    // The column default fills existing rows when ddl-auto adds the column to a populated table.
+    @Builder.Default
+    @Column(name = "article_count", nullable = false, updatable = false,
+            columnDefinition = "integer default 0 not null")
+    private Integer articleCount = 0;
+
     // Soft delete fields
     @Builder.Default
     @Column(name = "deleted")
@@ -7,7 +7,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Keyset feed: WHERE is_active/deleted ORDER BY created_at, id
+        @Index(name = "idx_products_feed", columnList = "is_active, deleted, created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,59 @@
+package com.tree.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending search engine notification (outbox row).
+ *
+ * Written in the same transaction as the content change; at most one pending
+ * row per URL and engine (enforced by a unique key), so repeated saves coalesce
+ * into one ping.
+ */
+@Entity
+@Table(name = "search_engine_notifications",
+        uniqueConstraints = @UniqueConstraint(name = "uk_search_engine_notifications_url",
+                columnNames = {"url", "engine"}),
+        indexes = @Index(name = "idx_search_engine_notifications_due", columnList = "engine, next_attempt_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchEngineNotification extends BaseEntity {
+
+    @Column(nullable = false, length = 2048)
+    private String url;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Engine engine;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    // Bumped on every change; the flusher only deletes/reschedules rows it actually sent
+    @Version
+    private Long version;
+
+    public enum Engine {
+        GOOGLE, INDEXNOW
+    }
+
+    public enum Type {
+        URL_UPDATED, URL_DELETED
+    }
+}
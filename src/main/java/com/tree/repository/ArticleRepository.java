@@ -2,20 +2,34 @@ package com.tree.repository;
 
 import com.tree.entity.Article;
 import com.tree.entity.Article.Status;
+import com.tree.repository.projection.ArticleRenderSource;
+import com.tree.repository.projection.ArticleSummaryView;
+import com.tree.repository.projection.SitemapEntry;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ArticleRepository extends JpaRepository<Article, UUID> {
     Optional<Article> findBySlug(String slug);
+    // Entity graphs fetch what ArticleResponse.from reads (category, its parent, author) in the same select
+    @EntityGraph(attributePaths = {"category", "category.parent", "author"})
     Optional<Article> findBySlugAndDeletedFalse(String slug);
     boolean existsBySlug(String slug);
 
@@ -24,7 +38,42 @@ public interface ArticleRepository extends JpaRepository<Article, UUID> {
     Page<Article> findByStatusAndDeletedFalse(Status status, Pageable pageable);
     Page<Article> findByCategoryIdAndStatusAndDeletedFalse(UUID categoryId, Status status, Pageable pageable);
 
+    // List projections: summary columns only, category joined in the same query
+    String SUMMARY_SELECT = "SELECT a.id AS id, a.title AS title, a.slug AS slug, a.summary AS summary, " +
+            "a.featuredImage AS featuredImage, a.featuredImageAlt AS featuredImageAlt, " +
+            "c.id AS categoryId, c.name AS categoryName, c.slug AS categorySlug, a.status AS status, " +
+            "a.isFeatured AS isFeatured, a.readingTime AS readingTime, a.viewCount AS viewCount, " +
+            "a.publishedAt AS publishedAt, a.createdAt AS createdAt, a.updatedAt AS updatedAt " +
+            "FROM Article a LEFT JOIN a.category c ";
+
+    // Slices: no count query; totals come from the count methods below (via CountCache)
+    @Query(SUMMARY_SELECT + "WHERE a.deleted = false")
+    Slice<ArticleSummaryView> findSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE a.status = :status AND a.deleted = false")
+    Slice<ArticleSummaryView> findSummariesByStatus(@Param("status") Status status, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE c.id = :categoryId AND a.status = :status AND a.deleted = false")
+    Slice<ArticleSummaryView> findSummariesByCategory(@Param("categoryId") UUID categoryId,
+                                                      @Param("status") Status status, Pageable pageable);
+
+    long countByDeletedFalse();
+    long countByStatusAndDeletedFalse(Status status);
+    long countByCategoryIdAndStatusAndDeletedFalse(UUID categoryId, Status status);
+
+    // Keyset feed on (createdAt, id); pass PageRequest.of(0, limit) without sort
+    @Query(SUMMARY_SELECT + "WHERE a.status = :status AND a.deleted = false ORDER BY a.createdAt DESC, a.id DESC")
+    List<ArticleSummaryView> findSummaryFeed(@Param("status") Status status, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE a.status = :status AND a.deleted = false " +
+           "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ArticleSummaryView> findSummaryFeedAfter(@Param("status") Status status,
+                                                  @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") UUID id, Pageable limit);
+
     // Trash queries
+    @EntityGraph(attributePaths = {"category", "category.parent", "author"})
     Page<Article> findByDeletedTrue(Pageable pageable);
 
     // Count non-deleted articles by category
@@ -37,11 +86,43 @@ public interface ArticleRepository extends JpaRepository<Article, UUID> {
     @Query("SELECT a FROM Article a WHERE a.status = :status AND a.deleted = false ORDER BY a.createdAt DESC")
     Page<Article> findPublishedArticles(@Param("status") Status status, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"category", "category.parent", "author"})
     @Query("SELECT a FROM Article a WHERE " +
            "(LOWER(a.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(a.content) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND a.status = :status AND a.deleted = false")
     Page<Article> searchArticles(@Param("keyword") String keyword, @Param("status") Status status, Pageable pageable);
 
+    // Ranked full-text search on the generated search_vector (PostgreSQL, see FullTextSearchInitializer).
+    // Ordering is part of the query, so pass an unsorted Pageable.
+    @Query(value = "SELECT a.* FROM articles a " +
+           "WHERE a.search_vector @@ websearch_to_tsquery('vn_unaccent', :keyword) " +
+           "AND a.status = :status AND a.deleted = false " +
+           "ORDER BY ts_rank_cd(a.search_vector, websearch_to_tsquery('vn_unaccent', :keyword)) DESC, a.created_at DESC",
+           countQuery = "SELECT COUNT(*) FROM articles a " +
+           "WHERE a.search_vector @@ websearch_to_tsquery('vn_unaccent', :keyword) " +
+           "AND a.status = :status AND a.deleted = false",
+           nativeQuery = true)
+    Page<Article> fullTextSearch(@Param("keyword") String keyword, @Param("status") String status, Pageable pageable);
+
     List<Article> findByStatusAndDeletedFalseOrderByCreatedAtDesc(Status status);
+
+    // Sitemap rows streamed with a JDBC fetch size; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.slug AS slug, a.updatedAt AS updatedAt FROM Article a " +
+           "WHERE a.status = :status AND a.deleted = false ORDER BY a.createdAt DESC")
+    Stream<SitemapEntry> streamSitemapEntries(@Param("status") Status status);
     List<Article> findByStatusOrderByCreatedAtDesc(Status status);
+
+    // Articles rendered by another renderer version (deleted ones included), keyset-paged by id
+    @Query("SELECT a.id AS id, a.slug AS slug, a.content AS content FROM Article a " +
+           "WHERE (a.renderVersion IS NULL OR a.renderVersion <> :version) AND a.id > :after ORDER BY a.id")
+    List<ArticleRenderSource> findStaleRenders(@Param("version") int version, @Param("after") UUID after,
+                                               Pageable limit);
+
+    // Bulk update: leaves updatedAt alone and skips rows an editor re-rendered in the meantime
+    @Modifying
+    @Query("UPDATE Article a SET a.contentHtml = :html, a.tableOfContents = :toc, a.contentHash = :hash, " +
+           "a.renderVersion = :version WHERE a.id = :id AND (a.renderVersion IS NULL OR a.renderVersion <> :version)")
+    int updateRender(@Param("id") UUID id, @Param("html") String html, @Param("toc") String tableOfContents,
+                     @Param("hash") String hash, @Param("version") int version);
 }
@@ -1,12 +1,14 @@
 package com.tree.repository;
 
 import com.tree.entity.Category;
+import com.tree.repository.projection.SitemapEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -34,10 +36,31 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
     List<Category> findByParentIsNullAndDeletedFalseOrderBySortOrderAsc();
     List<Category> findByParentIsNullAndActiveTrueAndDeletedFalseOrderBySortOrderAsc();
     List<Category> findByParentIdAndDeletedFalseOrderBySortOrderAsc(UUID parentId);
+    List<Category> findByParentIdInAndDeletedFalseOrderBySortOrderAsc(Collection<UUID> parentIds);
 
     // Legacy methods
     List<Category> findByActiveOrderBySortOrderAsc(boolean active);
     List<Category> findByActiveTrueOrderBySortOrderAsc();
+
+    // Article counts: atomic in the database, so concurrent article writes cannot lose updates.
+    // NULL-safe for rows from before the column had a default; recountArticles repairs those at startup.
+    @Modifying
+    @Query("UPDATE Category c SET c.articleCount = COALESCE(c.articleCount, 0) + :delta WHERE c.id = :id")
+    int adjustArticleCount(@Param("id") UUID id, @Param("delta") int delta);
+
+    @Query("SELECT c.articleCount FROM Category c WHERE c.id = :id")
+    Integer findArticleCountById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE Category c SET c.articleCount = " +
+           "(SELECT COUNT(a) FROM Article a WHERE a.category = c AND a.deleted = false) " +
+           "WHERE c.articleCount IS NULL " +
+           "OR c.articleCount <> (SELECT COUNT(a) FROM Article a WHERE a.category = c AND a.deleted = false)")
+    int recountArticles();
+
+    @Query("SELECT c.slug AS slug, c.updatedAt AS updatedAt FROM Category c " +
+           "WHERE c.active = true AND c.deleted = false ORDER BY c.sortOrder ASC")
+    List<SitemapEntry> findSitemapEntries();
     List<Category> findByParentIsNullOrderBySortOrderAsc();
     List<Category> findByParentIsNullAndActiveTrueOrderBySortOrderAsc();
     List<Category> findByParentIdOrderBySortOrderAsc(UUID parentId);
@@ -3,11 +3,14 @@ package com.tree.repository;
 import com.tree.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,6 +20,8 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
 
     Optional<Product> findBySlug(String slug);
 
+    // Entity graphs fetch what ProductService.toResponse reads (category and its parent) in the same select
+    @EntityGraph(attributePaths = {"category", "category.parent"})
     Optional<Product> findBySlugAndDeletedFalse(String slug);
 
     boolean existsBySlug(String slug);
@@ -28,9 +33,39 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
 
     Page<Product> findByCategoryIdAndIsActiveTrueAndDeletedFalse(UUID categoryId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"category", "category.parent"})
     List<Product> findByIsFeaturedTrueAndIsActiveTrueAndDeletedFalse();
 
+    // Slices: no count query; totals come from the count methods below (via CountCache)
+    @EntityGraph(attributePaths = {"category", "category.parent"})
+    Slice<Product> findSliceByDeletedFalse(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"category", "category.parent"})
+    Slice<Product> findSliceByIsActiveTrueAndDeletedFalse(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"category", "category.parent"})
+    Slice<Product> findSliceByCategoryIdAndIsActiveTrueAndDeletedFalse(UUID categoryId, Pageable pageable);
+
+    long countByDeletedFalse();
+
+    long countByIsActiveTrueAndDeletedFalse();
+
+    long countByCategoryIdAndIsActiveTrueAndDeletedFalse(UUID categoryId);
+
+    // Keyset feed on (createdAt, id); pass PageRequest.of(0, limit) without sort
+    @EntityGraph(attributePaths = {"category", "category.parent"})
+    @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.deleted = false ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findActiveFeed(Pageable limit);
+
+    @EntityGraph(attributePaths = {"category", "category.parent"})
+    @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.deleted = false " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findActiveFeedAfter(@Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") UUID id, Pageable limit);
+
     // Trash (deleted products)
+    @EntityGraph(attributePaths = {"category", "category.parent"})
     Page<Product> findByDeletedTrue(Pageable pageable);
 
     // Find all products by category (for cascade operations)
@@ -43,11 +78,25 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
 
     List<Product> findByIsFeaturedTrueAndIsActiveTrue();
 
+    @EntityGraph(attributePaths = {"category", "category.parent"})
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.deleted = false AND " +
            "(LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(p.summary) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     Page<Product> searchProducts(@Param("keyword") String keyword, Pageable pageable);
 
+    // Ranked full-text search on the generated search_vector (PostgreSQL, see FullTextSearchInitializer).
+    // Ordering is part of the query, so pass an unsorted Pageable.
+    @Query(value = "SELECT p.* FROM products p " +
+           "WHERE p.search_vector @@ websearch_to_tsquery('vn_unaccent', :keyword) " +
+           "AND p.is_active = true AND p.deleted = false " +
+           "ORDER BY ts_rank_cd(p.search_vector, websearch_to_tsquery('vn_unaccent', :keyword)) DESC, p.created_at DESC",
+           countQuery = "SELECT COUNT(*) FROM products p " +
+           "WHERE p.search_vector @@ websearch_to_tsquery('vn_unaccent', :keyword) " +
+           "AND p.is_active = true AND p.deleted = false",
+           nativeQuery = true)
+    Page<Product> fullTextSearch(@Param("keyword") String keyword, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"category", "category.parent"})
     @Query("SELECT p FROM Product p WHERE p.category.id = :categoryId AND p.id != :productId AND p.isActive = true AND p.deleted = false")
     List<Product> findRelatedProducts(@Param("categoryId") UUID categoryId, @Param("productId") UUID productId, Pageable pageable);
 }
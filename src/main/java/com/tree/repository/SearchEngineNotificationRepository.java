@@ -0,0 +1,25 @@
+package com.tree.repository;
+
+import com.tree.entity.SearchEngineNotification;
+import com.tree.entity.SearchEngineNotification.Engine;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SearchEngineNotificationRepository extends JpaRepository<SearchEngineNotification, UUID> {
+
+    // Due notifications, oldest first
+    List<SearchEngineNotification> findByEngineAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+            Engine engine, LocalDateTime now, Pageable pageable);
+
+    long countByEngine(Engine engine);
+
+    long countByEngineAndNextAttemptAtLessThanEqual(Engine engine, LocalDateTime now);
+
+    long countByEngineAndAttemptsGreaterThan(Engine engine, Integer attempts);
+}
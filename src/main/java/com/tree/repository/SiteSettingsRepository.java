@@ -4,12 +4,16 @@ import com.tree.entity.SiteSettings;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface SiteSettingsRepository extends JpaRepository<SiteSettings, UUID> {
 
+    // Single-row table: LIMIT 1 on the primary key instead of loading every row
+    Optional<SiteSettings> findFirstByOrderByIdAsc();
+
     default SiteSettings getSettings() {
-        return findAll().stream().findFirst().orElse(null);
+        return findFirstByOrderByIdAsc().orElse(null);
     }
 }
@@ -0,0 +1,12 @@
+package com.tree.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Markdown source of an article whose stored HTML needs re-rendering.
+ */
+public interface ArticleRenderSource {
+    UUID getId();
+    String getSlug();
+    String getContent();
+}
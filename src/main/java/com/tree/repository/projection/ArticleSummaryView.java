@@ -0,0 +1,28 @@
+package com.tree.repository.projection;
+
+import com.tree.entity.Article;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Article columns shown on listing cards and admin tables (no content TEXT columns).
+ */
+public interface ArticleSummaryView {
+    UUID getId();
+    String getTitle();
+    String getSlug();
+    String getSummary();
+    String getFeaturedImage();
+    String getFeaturedImageAlt();
+    UUID getCategoryId();
+    String getCategoryName();
+    String getCategorySlug();
+    Article.Status getStatus();
+    Boolean getIsFeatured();
+    Integer getReadingTime();
+    Long getViewCount();
+    LocalDateTime getPublishedAt();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
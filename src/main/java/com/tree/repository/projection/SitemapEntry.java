@@ -0,0 +1,11 @@
+package com.tree.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Slug and last modification time of one sitemap URL (no content columns).
+ */
+public interface SitemapEntry {
+    String getSlug();
+    LocalDateTime getUpdatedAt();
+}
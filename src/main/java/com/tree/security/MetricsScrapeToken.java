@@ -0,0 +1,30 @@
+package com.tree.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Static bearer token for Prometheus scrapers, which cannot log in for a JWT.
+ * Disabled (never matches) unless app.metrics.scrape-token is set.
+ */
+@Component
+public class MetricsScrapeToken {
+
+    private final byte[] expected;
+
+    public MetricsScrapeToken(@Value("${app.metrics.scrape-token:}") String token) {
+        this.expected = token.isBlank() ? null : ("Bearer " + token).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public boolean matches(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        // Constant-time compare, so response timing does not leak the token
+        return expected != null && header != null
+                && MessageDigest.isEqual(expected, header.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,178 @@
+package com.tree.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import com.tree.dto.CacheStatsResponse;
+import com.tree.dto.article.ArticleResponse;
+import com.tree.util.TransactionUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of rendered ArticleResponse objects keyed by slug.
+ *
+ * Entries are weighed by their approximate size in bytes, so a few very long
+ * articles cannot crowd out the heap. Writers must invalidate explicitly.
+ *
+ * Loads run on the calling thread outside any map lock (a loader inside
+ * Cache.get runs under a synchronized bin and would pin a virtual thread
+ * for the whole database round trip); concurrent misses still share one load.
+ * Hit/miss/eviction counts are published as cache.* meters (cache=article-pages).
+ */
+@Slf4j
+@Component
+public class ArticlePageCache implements MeterBinder {
+
+    private static final String NAME = "article-pages";
+    private static final int ENTRY_OVERHEAD_BYTES = 2048;
+
+    private final AsyncCache<String, CachedArticle> asyncCache;
+    private final Cache<String, CachedArticle> cache;
+    // asMap() operations do not record stats, so hits and loads are recorded here
+    private final StatsCounter statsCounter = new ConcurrentStatsCounter();
+    private final long maxWeightBytes;
+
+    public ArticlePageCache(@Value("${app.article-cache.max-weight-bytes:67108864}") long maxWeightBytes,
+                            @Value("${app.article-cache.ttl:PT1H}") Duration ttl) {
+        this.maxWeightBytes = maxWeightBytes;
+        this.asyncCache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String slug, CachedArticle entry) -> entry.weight())
+                .expireAfterWrite(ttl)
+                .recordStats(() -> statsCounter)
+                .buildAsync();
+        this.cache = asyncCache.synchronous();
+    }
+
+    /**
+     * Get cached article or load it; loader exceptions propagate and nothing is cached
+     */
+    public CachedArticle get(String slug, Function<String, CachedArticle> loader) {
+        CompletableFuture<CachedArticle> pending = new CompletableFuture<>();
+        CompletableFuture<CachedArticle> existing = asyncCache.asMap().putIfAbsent(slug, pending);
+        if (existing != null) {
+            statsCounter.recordHits(1);
+            return join(existing);
+        }
+
+        statsCounter.recordMisses(1);
+        long start = System.nanoTime();
+        try {
+            CachedArticle loaded = loader.apply(slug);
+            statsCounter.recordLoadSuccess(System.nanoTime() - start);
+            pending.complete(loaded);
+            return loaded;
+        } catch (RuntimeException | Error e) {
+            statsCounter.recordLoadFailure(System.nanoTime() - start);
+            asyncCache.asMap().remove(slug, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Build a cache entry; flushMark is the view-count mark taken when the response was loaded
+     */
+    public CachedArticle entry(ArticleResponse response, long flushMark) {
+        return new CachedArticle(response, flushMark, weigh(response));
+    }
+
+    /**
+     * Evict slugs now and again after the surrounding transaction commits,
+     * so a concurrent reader cannot re-cache the pre-commit state
+     */
+    public void invalidate(String... slugs) {
+        evict(slugs);
+        TransactionUtils.afterCommit(() -> evict(slugs));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        TransactionUtils.afterCommit(cache::invalidateAll);
+        log.debug("Article page cache cleared");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+        Gauge.builder("cache.weighted.size", this, ArticlePageCache::weightedSize)
+                .description("Approximate size of cached entries")
+                .baseUnit("bytes")
+                .tag("cache", NAME)
+                .register(registry);
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .name(NAME)
+                .entries(cache.estimatedSize())
+                .weightedSizeBytes(weightedSize())
+                .maxWeightBytes(maxWeightBytes)
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .evictionWeightBytes(stats.evictionWeight())
+                .loadFailureCount(stats.loadFailureCount())
+                .averageLoadPenaltyMs(stats.averageLoadPenalty() / 1_000_000.0)
+                .build();
+    }
+
+    private long weightedSize() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    private void evict(String... slugs) {
+        for (String slug : slugs) {
+            if (slug != null) {
+                cache.invalidate(slug);
+            }
+        }
+    }
+
+    // Waiters on another thread's load see the loader's own exception
+    private static CachedArticle join(CompletableFuture<CachedArticle> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    // Strings are UTF-16 in the worst case, so count two bytes per char
+    private static int weigh(ArticleResponse response) {
+        long chars = length(response.getContent())
+                + length(response.getContentHtml())
+                + length(response.getContentBlocks())
+                + length(response.getTableOfContents())
+                + length(response.getSummary())
+                + length(response.getGalleryImages());
+        return (int) Math.min(Integer.MAX_VALUE, chars * 2 + ENTRY_OVERHEAD_BYTES);
+    }
+
+    private static long length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    public record CachedArticle(ArticleResponse response, long flushMark, int weight) {}
+}
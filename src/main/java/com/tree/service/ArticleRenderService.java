@@ -0,0 +1,181 @@
+package com.tree.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tree.entity.Article;
+import com.tree.exception.ConflictException;
+import com.tree.repository.ArticleRepository;
+import com.tree.repository.projection.ArticleRenderSource;
+import com.tree.util.MarkdownUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Versioned Markdown-to-HTML rendering of article content.
+ *
+ * Each article stores the SHA-256 of its markdown and the MarkdownUtil.RENDER_VERSION
+ * that produced contentHtml. Saving unchanged markdown skips the render; a scheduled
+ * batch job re-renders rows left behind by a renderer configuration change.
+ * The same pass adds heading anchor ids and stores the heading outline as
+ * tableOfContents JSON: [{"id", "text", "level", "children": [...]}].
+ */
+@Slf4j
+@Service
+public class ArticleRenderService {
+
+    // Smallest UUID in PostgreSQL/H2 ordering; start of the keyset scan
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final ArticleRepository articleRepository;
+    private final ArticlePageCache articlePageCache;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final ReentrantLock rerenderLock = new ReentrantLock();
+
+    public ArticleRenderService(ArticleRepository articleRepository,
+                                ArticlePageCache articlePageCache,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.render.batch-size:50}") int batchSize) {
+        this.articleRepository = articleRepository;
+        this.articlePageCache = articlePageCache;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Render the article's content into contentHtml and tableOfContents unless the stored HTML already
+     * matches this content and renderer version. Returns whether it rendered.
+     */
+    public boolean render(Article article) {
+        String hash = contentHash(article.getContent());
+        if (article.getContentHtml() != null
+                && hash.equals(article.getContentHash())
+                && Integer.valueOf(MarkdownUtil.RENDER_VERSION).equals(article.getRenderVersion())) {
+            return false;
+        }
+        MarkdownUtil.Rendered rendered = MarkdownUtil.render(article.getContent());
+        article.setContentHtml(rendered.html());
+        article.setTableOfContents(toJson(rendered.tableOfContents()));
+        article.setContentHash(hash);
+        article.setRenderVersion(MarkdownUtil.RENDER_VERSION);
+        return true;
+    }
+
+    /**
+     * Re-render every article whose HTML came from another renderer version,
+     * batchSize rows per transaction. Returns the number of articles updated.
+     *
+     * @throws ConflictException if a run (scheduled or requested) is already in progress
+     */
+    public int rerenderStale() {
+        return rerenderExclusively().orElseThrow(() -> new ConflictException("A re-render is already running"));
+    }
+
+    // The scheduled run leaves the work to a run already in progress
+    @Scheduled(initialDelayString = "${app.render.initial-delay-ms:60000}",
+               fixedDelayString = "${app.render.interval-ms:3600000}")
+    public void rerenderStaleOnSchedule() {
+        if (rerenderExclusively().isEmpty()) {
+            log.debug("Scheduled re-render skipped: another run is in progress");
+        }
+    }
+
+    // Empty if another run holds the lock
+    private OptionalInt rerenderExclusively() {
+        if (!rerenderLock.tryLock()) {
+            return OptionalInt.empty();
+        }
+        try {
+            long start = System.nanoTime();
+            int rendered = 0;
+            UUID after = FIRST_ID;
+            List<ArticleRenderSource> batch;
+            do {
+                batch = articleRepository.findStaleRenders(MarkdownUtil.RENDER_VERSION, after,
+                        PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                rendered += rerender(batch);
+                after = batch.get(batch.size() - 1).getId();
+            } while (batch.size() == batchSize);
+
+            if (rendered > 0) {
+                log.info("Re-rendered {} articles to renderer version {} in {} ms",
+                        rendered, MarkdownUtil.RENDER_VERSION, (System.nanoTime() - start) / 1_000_000);
+            }
+            return OptionalInt.of(rendered);
+        } finally {
+            rerenderLock.unlock();
+        }
+    }
+
+    // Markdown is rendered before the transaction opens, so no connection is held meanwhile
+    private int rerender(List<ArticleRenderSource> batch) {
+        List<RenderedRow> rendered = new ArrayList<>(batch.size());
+        for (ArticleRenderSource source : batch) {
+            MarkdownUtil.Rendered result = MarkdownUtil.render(source.getContent());
+            rendered.add(new RenderedRow(result.html(), toJson(result.tableOfContents()), contentHash(source.getContent())));
+        }
+
+        return transactionTemplate.execute(status -> {
+            int updated = 0;
+            List<String> slugs = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                ArticleRenderSource source = batch.get(i);
+                RenderedRow row = rendered.get(i);
+                if (articleRepository.updateRender(source.getId(), row.html(), row.tableOfContents(),
+                        row.hash(), MarkdownUtil.RENDER_VERSION) > 0) {
+                    updated++;
+                    slugs.add(source.getSlug());
+                }
+            }
+            articlePageCache.invalidate(slugs.toArray(String[]::new));
+            return updated;
+        });
+    }
+
+    private String toJson(List<MarkdownUtil.TocEntry> tableOfContents) {
+        try {
+            return objectMapper.writeValueAsString(tableOfContents);
+        } catch (JsonProcessingException e) {
+            // Records of strings and ints always serialize
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Hex SHA-256 of the markdown source
+     */
+    public static String contentHash(String markdown) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((markdown != null ? markdown : "").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record RenderedRow(String html, String tableOfContents, String hash) {}
+}
@@ -1,8 +1,11 @@
 package com.tree.service;
 
+import com.tree.config.FullTextSearchInitializer;
+import com.tree.dto.CursorPageResponse;
 import com.tree.dto.PageResponse;
 import com.tree.dto.article.ArticleRequest;
 import com.tree.dto.article.ArticleResponse;
+import com.tree.dto.article.ArticleSummaryResponse;
 import com.tree.entity.Article;
 import com.tree.entity.Article.Status;
 import com.tree.entity.Category;
@@ -12,46 +15,99 @@ import com.tree.exception.ResourceNotFoundException;
 import com.tree.repository.ArticleRepository;
 import com.tree.repository.CategoryRepository;
 import com.tree.repository.UserRepository;
+import com.tree.repository.projection.ArticleSummaryView;
+import com.tree.service.search.InMemorySearchService;
+import com.tree.util.ContentAnalyzer;
+import com.tree.util.CursorCodec;
 import com.tree.util.MarkdownUtil;
 import com.tree.util.SlugUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.LongSupplier;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ArticleService {
 
+    private static final int MAX_FEED_SIZE = 50;
+
     private final ArticleRepository articleRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryService categoryService;
     private final UserRepository userRepository;
-    private final GoogleIndexingService googleIndexingService;
-    private final IndexNowService indexNowService;
+    private final SearchEngineNotificationQueue notificationQueue;
+    private final ViewCountService viewCountService;
+    private final ArticlePageCache articlePageCache;
+    private final ArticleRenderService articleRenderService;
+    private final ImageProcessingService imageProcessingService;
+    private final FullTextSearchInitializer fullTextSearch;
+    private final InMemorySearchService inMemorySearch;
+    private final SitemapService sitemapService;
+    private final CountCache countCache;
+    private final PlatformTransactionManager transactionManager;
+
+    // List endpoints read the summary projection; content columns are only loaded per article.
+    // Totals come from CountCache, or are skipped when withTotal is false.
+    public PageResponse<ArticleSummaryResponse> getAllArticles(Pageable pageable) {
+        return toPage(articleRepository.findSummaries(pageable), true,
+                "all", articleRepository::countByDeletedFalse);
+    }
 
-    public PageResponse<ArticleResponse> getAllArticles(Pageable pageable) {
-        Page<ArticleResponse> page = articleRepository.findByDeletedFalse(pageable)
-                .map(ArticleResponse::from);
-        return PageResponse.from(page);
+    public PageResponse<ArticleSummaryResponse> getPublishedArticles(Pageable pageable) {
+        return getPublishedArticles(pageable, true);
     }
 
-    public PageResponse<ArticleResponse> getPublishedArticles(Pageable pageable) {
-        Page<ArticleResponse> page = articleRepository.findByStatusAndDeletedFalse(Status.PUBLISHED, pageable)
-                .map(ArticleResponse::from);
-        return PageResponse.from(page);
+    public PageResponse<ArticleSummaryResponse> getPublishedArticles(Pageable pageable, boolean withTotal) {
+        return toPage(articleRepository.findSummariesByStatus(Status.PUBLISHED, pageable), withTotal,
+                "published", () -> articleRepository.countByStatusAndDeletedFalse(Status.PUBLISHED));
     }
 
-    public PageResponse<ArticleResponse> getArticlesByCategory(UUID categoryId, Pageable pageable) {
-        Page<ArticleResponse> page = articleRepository
-                .findByCategoryIdAndStatusAndDeletedFalse(categoryId, Status.PUBLISHED, pageable)
-                .map(ArticleResponse::from);
-        return PageResponse.from(page);
+    public PageResponse<ArticleSummaryResponse> getArticlesByCategory(UUID categoryId, Pageable pageable) {
+        return getArticlesByCategory(categoryId, pageable, true);
+    }
+
+    public PageResponse<ArticleSummaryResponse> getArticlesByCategory(UUID categoryId, Pageable pageable,
+                                                                      boolean withTotal) {
+        return toPage(articleRepository.findSummariesByCategory(categoryId, Status.PUBLISHED, pageable), withTotal,
+                "published:category:" + categoryId,
+                () -> articleRepository.countByCategoryIdAndStatusAndDeletedFalse(categoryId, Status.PUBLISHED));
+    }
+
+    private PageResponse<ArticleSummaryResponse> toPage(Slice<ArticleSummaryView> slice, boolean withTotal,
+                                                        String countFilter, LongSupplier counter) {
+        Slice<ArticleSummaryResponse> page = slice.map(ArticleSummaryResponse::from);
+        if (!withTotal) {
+            return PageResponse.from(page);
+        }
+        return PageResponse.from(page, countCache.count(CountCache.ARTICLES, countFilter, counter));
+    }
+
+    /**
+     * Keyset page of published articles, newest first; no OFFSET and no COUNT
+     */
+    public CursorPageResponse<ArticleSummaryResponse> getPublishedFeed(String cursor, int size) {
+        size = Math.clamp(size, 1, MAX_FEED_SIZE);
+        CursorCodec.Cursor after = CursorCodec.decode(cursor);
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<ArticleSummaryView> rows = after == null
+                ? articleRepository.findSummaryFeed(Status.PUBLISHED, limit)
+                : articleRepository.findSummaryFeedAfter(Status.PUBLISHED, after.createdAt(), after.id(), limit);
+        return CursorPageResponse.from(rows.stream().map(ArticleSummaryResponse::from).toList(), size,
+                summary -> CursorCodec.encode(summary.getCreatedAt(), UUID.fromString(summary.getId())));
     }
 
     // Trash methods
@@ -62,12 +118,23 @@ public class ArticleService {
     }
 
     public PageResponse<ArticleResponse> searchArticles(String keyword, Pageable pageable) {
-        Page<ArticleResponse> page = articleRepository
-                .searchArticles(keyword, Status.PUBLISHED, pageable)
+        Page<ArticleResponse> page = findPublished(keyword, pageable)
                 .map(ArticleResponse::from);
         return PageResponse.from(page);
     }
 
+    // In-memory index when enabled, then PostgreSQL full-text search, then LIKE search
+    private Page<Article> findPublished(String keyword, Pageable pageable) {
+        if (inMemorySearch.supports(keyword)) {
+            return inMemorySearch.searchArticles(keyword, pageable);
+        }
+        if (fullTextSearch.supports(keyword)) {
+            return articleRepository.fullTextSearch(keyword, Status.PUBLISHED.name(),
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        }
+        return articleRepository.searchArticles(keyword, Status.PUBLISHED, pageable);
+    }
+
     public ArticleResponse getById(UUID id) {
         Article article = articleRepository.findById(id)
                 .filter(a -> !a.getDeleted())
@@ -75,15 +142,29 @@ public class ArticleService {
         return ArticleResponse.from(article);
     }
 
-    @Transactional
+    // Served from ArticlePageCache; only a cache miss opens a transaction
     public ArticleResponse getBySlug(String slug) {
-        Article article = articleRepository.findBySlugAndDeletedFalse(slug)
-                .orElseThrow(() -> new ResourceNotFoundException("Article", "slug", slug));
+        ArticlePageCache.CachedArticle cached = articlePageCache.get(slug, this::loadBySlug);
+        ArticleResponse response = cached.response();
+        UUID id = UUID.fromString(response.getId());
 
-        article.setViewCount(article.getViewCount() + 1);
-        articleRepository.save(article);
+        // Buffered write-behind increment, flushed in batches by ViewCountService
+        viewCountService.recordArticleView(id);
 
-        return ArticleResponse.from(article);
+        return response.toBuilder()
+                .viewCount(viewCountService.articleViews(id, response.getViewCount(), cached.flushMark()))
+                .build();
+    }
+
+    private ArticlePageCache.CachedArticle loadBySlug(String slug) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> {
+            Article article = articleRepository.findBySlugAndDeletedFalse(slug)
+                    .orElseThrow(() -> new ResourceNotFoundException("Article", "slug", slug));
+            return articlePageCache.entry(ArticleResponse.from(article),
+                    viewCountService.articleFlushMark(article.getId()));
+        });
     }
 
     @Transactional
@@ -100,19 +181,11 @@ public class ArticleService {
         User author = userRepository.findById(authorId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", authorId));
 
-        // Calculate reading time (~200 words/minute)
-        Integer readingTime = request.getReadingTime();
-        if (readingTime == null && request.getContent() != null) {
-            int wordCount = request.getContent().split("\\s+").length;
-            readingTime = Math.max(1, wordCount / 200);
-        }
-
         Article article = Article.builder()
                 .title(request.getTitle())
                 .slug(slug)
                 .summary(request.getSummary())
                 .content(request.getContent())
-                .contentHtml(MarkdownUtil.markdownToHtml(request.getContent()))
                 .featuredImage(request.getFeaturedImage())
                 .featuredImageAlt(request.getFeaturedImageAlt())
                 .featuredImageWidth(request.getFeaturedImageWidth())
@@ -122,7 +195,6 @@ public class ArticleService {
                 .ogImage(request.getOgImage())
                 .ogImageAlt(request.getOgImageAlt())
                 .tags(request.getTags())
-                .readingTime(readingTime)
                 .isFeatured(request.getIsFeatured() != null ? request.getIsFeatured() : false)
                 .allowComments(request.getAllowComments() != null ? request.getAllowComments() : true)
                 .publishedAt(request.getPublishedAt())
@@ -145,6 +217,9 @@ public class ArticleService {
                 .author(author)
                 .viewCount(0L)
                 .build();
+        articleRenderService.render(article);
+        applyContentAnalysis(article, request.getReadingTime());
+        applyFeaturedImageSize(article, request);
 
         // Set publishedAt if publishing
         if (article.getStatus() == Status.PUBLISHED && article.getPublishedAt() == null) {
@@ -158,12 +233,15 @@ public class ArticleService {
         }
 
         articleRepository.save(article);
+        categoryService.adjustArticleCount(article.getCategory(), 1);
+        inMemorySearch.articleChanged(article);
+        countCache.invalidate(CountCache.ARTICLES);
+        sitemapService.invalidate();
         log.info("Article created: {}", article.getId());
 
         // Notify search engines if published
         if (article.getStatus() == Status.PUBLISHED) {
-            googleIndexingService.notifyArticlePublished(article.getSlug());
-            indexNowService.notifyArticlePublished(article.getSlug());
+            notificationQueue.articlePublished(article.getSlug());
         }
 
         return ArticleResponse.from(article);
@@ -175,6 +253,8 @@ public class ArticleService {
 
         Article article = articleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Article", "id", id));
+        String previousSlug = article.getSlug();
+        Category previousCategory = article.getCategory();
 
         article.setTitle(request.getTitle());
 
@@ -187,9 +267,9 @@ public class ArticleService {
 
         article.setSummary(request.getSummary());
         article.setContent(request.getContent());
-        article.setContentHtml(MarkdownUtil.markdownToHtml(request.getContent()));
+        // No-op when the markdown and renderer version are unchanged
+        articleRenderService.render(article);
         article.setContentBlocks(request.getContentBlocks());
-        article.setTableOfContents(request.getTableOfContents());
         article.setFeaturedImage(request.getFeaturedImage());
         article.setFeaturedImageAlt(request.getFeaturedImageAlt());
         article.setFeaturedImageWidth(request.getFeaturedImageWidth());
@@ -201,14 +281,6 @@ public class ArticleService {
         article.setTags(request.getTags());
         article.setSourceUrl(request.getSourceUrl());
 
-        // Update reading time
-        if (request.getReadingTime() != null) {
-            article.setReadingTime(request.getReadingTime());
-        } else if (request.getContent() != null) {
-            int wordCount = request.getContent().split("\\s+").length;
-            article.setReadingTime(Math.max(1, wordCount / 200));
-        }
-
         if (request.getIsFeatured() != null) {
             article.setIsFeatured(request.getIsFeatured());
         }
@@ -239,6 +311,8 @@ public class ArticleService {
         if (request.getSchemaType() != null) {
             article.setSchemaType(request.getSchemaType());
         }
+        applyContentAnalysis(article, request.getReadingTime());
+        applyFeaturedImageSize(article, request);
 
         if (request.getStatus() != null) {
             Status newStatus = Status.valueOf(request.getStatus());
@@ -258,17 +332,42 @@ public class ArticleService {
         }
 
         articleRepository.save(article);
+        // A trashed article is not counted anywhere; restore() counts it in its category then
+        if (!article.getDeleted() && previousCategory != article.getCategory()) {
+            categoryService.adjustArticleCount(previousCategory, -1);
+            categoryService.adjustArticleCount(article.getCategory(), 1);
+        }
+        articlePageCache.invalidate(previousSlug, article.getSlug());
+        inMemorySearch.articleChanged(article);
+        countCache.invalidate(CountCache.ARTICLES);
+        sitemapService.invalidate();
         log.info("Article updated: {}", id);
 
         // Notify search engines if published
         if (article.getStatus() == Status.PUBLISHED) {
-            googleIndexingService.notifyArticlePublished(article.getSlug());
-            indexNowService.notifyArticlePublished(article.getSlug());
+            notificationQueue.articlePublished(article.getSlug());
         }
 
         return ArticleResponse.from(article);
     }
 
+    // One pass over the markdown: reading time (unless given), SEO and readability scores
+    private void applyContentAnalysis(Article article, Integer readingTime) {
+        ContentAnalyzer.Analysis analysis = ContentAnalyzer.analyze(new ContentAnalyzer.Input(
+                article.getContent(), article.getTitle(), article.getSlug(), article.getFocusKeyword(),
+                article.getMetaTitle(), article.getMetaDescription()));
+        article.setReadingTime(readingTime != null ? readingTime : analysis.readingTime());
+        article.setSeoScore(analysis.seoScore());
+        article.setReadabilityScore(analysis.readabilityScore());
+    }
+
+    // Measured from our own upload when possible; client-supplied size only for external images
+    private void applyFeaturedImageSize(Article article, ArticleRequest request) {
+        Optional<ImageProcessingService.Dimensions> size = imageProcessingService.dimensionsOf(request.getFeaturedImage());
+        article.setFeaturedImageWidth(size.map(ImageProcessingService.Dimensions::width).orElse(request.getFeaturedImageWidth()));
+        article.setFeaturedImageHeight(size.map(ImageProcessingService.Dimensions::height).orElse(request.getFeaturedImageHeight()));
+    }
+
     @Transactional
     public void delete(UUID id) {
         log.info("Soft deleting article: {}", id);
@@ -280,11 +379,16 @@ public class ArticleService {
         article.setDeleted(true);
         article.setDeletedAt(LocalDateTime.now());
         articleRepository.save(article);
+        categoryService.adjustArticleCount(article.getCategory(), -1);
+        articlePageCache.invalidate(article.getSlug());
+        inMemorySearch.articleChanged(article);
+        countCache.invalidate(CountCache.ARTICLES);
+        sitemapService.invalidate();
         log.info("Article soft deleted: {}", id);
 
         // Notify Google if was published
         if (article.getStatus() == Status.PUBLISHED) {
-            googleIndexingService.notifyArticleDeleted(article.getSlug());
+            notificationQueue.articleDeleted(article.getSlug());
         }
     }
 
@@ -299,12 +403,16 @@ public class ArticleService {
         article.setDeleted(false);
         article.setDeletedAt(null);
         articleRepository.save(article);
+        categoryService.adjustArticleCount(article.getCategory(), 1);
+        articlePageCache.invalidate(article.getSlug());
+        inMemorySearch.articleChanged(article);
+        countCache.invalidate(CountCache.ARTICLES);
+        sitemapService.invalidate();
         log.info("Article restored: {}", id);
 
         // Notify search engines if published
         if (article.getStatus() == Status.PUBLISHED) {
-            googleIndexingService.notifyArticlePublished(article.getSlug());
-            indexNowService.notifyArticlePublished(article.getSlug());
+            notificationQueue.articlePublished(article.getSlug());
         }
 
         return ArticleResponse.from(article);
@@ -319,6 +427,10 @@ public class ArticleService {
                 .orElseThrow(() -> new ResourceNotFoundException("Article in trash", "id", id));
 
         articleRepository.delete(article);
+        articlePageCache.invalidate(article.getSlug());
+        inMemorySearch.articleRemoved(id);
+        countCache.invalidate(CountCache.ARTICLES);
+        sitemapService.invalidate();
         log.info("Article permanently deleted: {}", id);
     }
 
@@ -12,6 +12,8 @@ import com.tree.repository.ProductRepository;
 import com.tree.util.SlugUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +29,9 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final ArticleRepository articleRepository;
     private final ProductRepository productRepository;
+    private final ArticlePageCache articlePageCache;
+    private final CategoryTreeAssembler categoryTreeAssembler;
+    private final SitemapService sitemapService;
 
     // Get all categories as flat list (non-deleted)
     public List<CategoryResponse> getAllCategories() {
@@ -37,16 +42,12 @@ public class CategoryService {
 
     // Get categories as tree structure (only root categories with nested children)
     public List<CategoryResponse> getCategoryTree() {
-        return categoryRepository.findByParentIsNullAndDeletedFalseOrderBySortOrderAsc().stream()
-                .map(CategoryResponse::fromWithChildren)
-                .toList();
+        return categoryTreeAssembler.buildTree(false);
     }
 
-    // Get active categories as tree structure
+    // Get active categories as tree structure (inactive categories hide their subtree)
     public List<CategoryResponse> getActiveCategoryTree() {
-        return categoryRepository.findByParentIsNullAndActiveTrueAndDeletedFalseOrderBySortOrderAsc().stream()
-                .map(CategoryResponse::fromWithChildren)
-                .toList();
+        return categoryTreeAssembler.buildTree(true);
     }
 
     public List<CategoryResponse> getActiveCategories() {
@@ -62,17 +63,39 @@ public class CategoryService {
                 .toList();
     }
 
+    // Lookup and subtree share one session, so the parent chain loads lazily
+    @Transactional(readOnly = true)
     public CategoryResponse getById(UUID id) {
         Category category = categoryRepository.findById(id)
                 .filter(c -> !c.getDeleted())
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
-        return CategoryResponse.fromWithChildren(category);
+        return categoryTreeAssembler.buildSubtree(category);
     }
 
+    @Transactional(readOnly = true)
     public CategoryResponse getBySlug(String slug) {
         Category category = categoryRepository.findBySlugAndDeletedFalse(slug)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "slug", slug));
-        return CategoryResponse.fromWithChildren(category);
+        return categoryTreeAssembler.buildSubtree(category);
+    }
+
+    // Add delta to the non-deleted article count; called by ArticleService inside its write transaction
+    @Transactional
+    public void adjustArticleCount(Category category, int delta) {
+        if (category == null) {
+            return;
+        }
+        categoryRepository.adjustArticleCount(category.getId(), delta);
+        // Mirror the stored value on the managed entity for the response being built
+        category.setArticleCount(categoryRepository.findArticleCountById(category.getId()));
+    }
+
+    // Backfill/repair article_count for all categories with one bulk update
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshAllArticleCounts() {
+        int updated = categoryRepository.recountArticles();
+        log.info("Category article counts refreshed: {} updated", updated);
     }
 
     @Transactional
@@ -106,6 +129,7 @@ public class CategoryService {
                 .build();
 
         categoryRepository.save(category);
+        sitemapService.invalidate();
         log.info("Category created: {}", category.getId());
 
         return CategoryResponse.from(category);
@@ -170,6 +194,9 @@ public class CategoryService {
         }
 
         categoryRepository.save(category);
+        // Cached article pages embed the category
+        articlePageCache.invalidateAll();
+        sitemapService.invalidate();
         log.info("Category updated: {}", id);
 
         return CategoryResponse.from(category);
@@ -212,6 +239,9 @@ public class CategoryService {
         category.setDeleted(true);
         category.setDeletedAt(LocalDateTime.now());
         categoryRepository.save(category);
+        // Cached article pages embed the category
+        articlePageCache.invalidateAll();
+        sitemapService.invalidate();
         log.info("Category soft deleted: {}", id);
     }
 
@@ -226,6 +256,9 @@ public class CategoryService {
         category.setDeleted(false);
         category.setDeletedAt(null);
         categoryRepository.save(category);
+        // Cached article pages embed the category
+        articlePageCache.invalidateAll();
+        sitemapService.invalidate();
         log.info("Category restored: {}", id);
 
         return CategoryResponse.from(category);
@@ -264,6 +297,9 @@ public class CategoryService {
         // Use native delete to bypass JPA cascade/orphanRemoval issues
         categoryRepository.deleteByIdNative(id);
 
+        // Cached article pages embed the category
+        articlePageCache.invalidateAll();
+        sitemapService.invalidate();
         log.info("Category permanently deleted: {}", id);
     }
 }
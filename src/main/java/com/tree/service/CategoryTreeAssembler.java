@@ -0,0 +1,116 @@
+package com.tree.service;
+
+import com.tree.dto.category.CategoryResponse;
+import com.tree.entity.Category;
+import com.tree.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Builds category trees in memory from one flat category query, instead of
+ * walking lazy children/parent chains. Article counts come from the maintained
+ * article_count column.
+ *
+ * Categories whose parent is not part of the loaded set (deleted, or inactive
+ * for the active tree) are left out together with their subtree. A single
+ * category's subtree is loaded level by level instead, without the rest.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeAssembler {
+
+    private final CategoryRepository categoryRepository;
+
+    /**
+     * Root categories with nested children, ordered by sortOrder at every level
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryResponse> buildTree(boolean activeOnly) {
+        return assemble(activeOnly);
+    }
+
+    /**
+     * One category with its non-deleted descendants nested, one query per level below it
+     */
+    @Transactional(readOnly = true)
+    public CategoryResponse buildSubtree(Category category) {
+        CategoryResponse root = CategoryResponse.from(category);
+        Set<UUID> seen = new HashSet<>(Set.of(category.getId()));
+        Map<UUID, CategoryResponse> level = Map.of(category.getId(), root);
+        while (!level.isEmpty()) {
+            Map<UUID, CategoryResponse> next = new LinkedHashMap<>();
+            for (Category child : categoryRepository.findByParentIdInAndDeletedFalseOrderBySortOrderAsc(level.keySet())) {
+                // Guards against a parent cycle in bad data
+                if (!seen.add(child.getId())) {
+                    continue;
+                }
+                CategoryResponse parent = level.get(child.getParent().getId());
+                CategoryResponse node = CategoryResponse.treeNode(child);
+                node.setParentId(parent.getId());
+                node.setParentName(parent.getName());
+                node.setLevel(parent.getLevel() + 1);
+                parent.getChildren().add(node);
+                next.put(child.getId(), node);
+            }
+            level = next;
+        }
+        return root;
+    }
+
+    private List<CategoryResponse> assemble(boolean activeOnly) {
+        List<Category> categories = activeOnly
+                ? categoryRepository.findByActiveTrueAndDeletedFalseOrderBySortOrderAsc()
+                : categoryRepository.findByDeletedFalseOrderBySortOrderAsc();
+
+        // Pass 1: one node per category; only the parent FK is read, never the parent entity
+        Map<UUID, CategoryResponse> nodes = new LinkedHashMap<>();
+        Map<UUID, UUID> parentIds = new HashMap<>();
+        for (Category category : categories) {
+            nodes.put(category.getId(), CategoryResponse.treeNode(category));
+            if (category.getParent() != null) {
+                parentIds.put(category.getId(), category.getParent().getId());
+            }
+        }
+
+        // Pass 2: link children in sortOrder (input order is preserved)
+        List<CategoryResponse> roots = new ArrayList<>();
+        for (Map.Entry<UUID, CategoryResponse> entry : nodes.entrySet()) {
+            CategoryResponse node = entry.getValue();
+            UUID parentId = parentIds.get(entry.getKey());
+            if (parentId == null) {
+                roots.add(node);
+                continue;
+            }
+            CategoryResponse parent = nodes.get(parentId);
+            if (parent != null) {
+                node.setParentId(parent.getId());
+                node.setParentName(parent.getName());
+                parent.getChildren().add(node);
+            }
+        }
+
+        // Pass 3: levels top-down; unreachable (orphaned) nodes keep level 0 and are not returned as roots
+        Deque<CategoryResponse> queue = new ArrayDeque<>(roots);
+        while (!queue.isEmpty()) {
+            CategoryResponse node = queue.poll();
+            for (CategoryResponse child : node.getChildren()) {
+                child.setLevel(node.getLevel() + 1);
+                queue.add(child);
+            }
+        }
+
+        return roots;
+    }
+}
@@ -0,0 +1,87 @@
+package com.tree.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tree.dto.CacheStatsResponse;
+import com.tree.util.TransactionUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of list total counts, keyed by scope (articles, products) and filter.
+ *
+ * Lets paginated endpoints run the page query alone and reuse a recent COUNT(*).
+ * Writers invalidate their whole scope; the TTL bounds any count that races a write.
+ */
+@Component
+public class CountCache implements MeterBinder {
+
+    public static final String ARTICLES = "articles";
+    public static final String PRODUCTS = "products";
+
+    private static final String NAME = "list-counts";
+
+    private final Cache<Key, Long> cache;
+
+    public CountCache(@Value("${app.count-cache.ttl:PT30S}") Duration ttl,
+                      @Value("${app.count-cache.max-entries:1000}") long maxEntries) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Cached count, or run the counter and cache its result.
+     * The counter runs outside any cache lock, so concurrent misses may both count.
+     */
+    public long count(String scope, String filter, LongSupplier counter) {
+        Key key = new Key(scope, filter);
+        Long cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long count = counter.getAsLong();
+        cache.put(key, count);
+        return count;
+    }
+
+    /**
+     * Drop all counts of a scope now and again after the surrounding transaction commits
+     */
+    public void invalidate(String scope) {
+        evict(scope);
+        TransactionUtils.afterCommit(() -> evict(scope));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .name(NAME)
+                .entries(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    private void evict(String scope) {
+        cache.asMap().keySet().removeIf(key -> key.scope().equals(scope));
+    }
+
+    private record Key(String scope, String filter) {}
+}
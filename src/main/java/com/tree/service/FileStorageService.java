@@ -1,6 +1,13 @@
 package com.tree.service;
 
 import com.tree.exception.BadRequestException;
+import com.tree.util.MagicBytes;
+import com.tree.util.SvgSanitizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -8,34 +15,68 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.annotation.PostConstruct;
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
-import java.util.List;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class FileStorageService {
 
+    // Content-addressed uploads live under /uploads/sha256/<folder>/<hex digest>.<ext>
+    public static final String CONTENT_ADDRESSED_DIR = "sha256";
+
+    private final MeterRegistry meterRegistry;
+    private final ImageProcessingService imageProcessingService;
+
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
     @Value("${app.upload.max-size:10485760}")
     private long maxFileSize; // 10MB default
 
-    private static final List<String> ALLOWED_IMAGE_TYPES = Arrays.asList(
-        "image/jpeg", "image/png", "image/gif", "image/webp", "image/svg+xml"
-    );
+    // Name uploads by their SHA-256 instead of a random UUID: duplicates are stored once, URLs never change
+    @Value("${app.upload.content-addressed:true}")
+    private boolean contentAddressed;
 
-    private static final List<String> ALLOWED_EXTENSIONS = Arrays.asList(
-        "jpg", "jpeg", "png", "gif", "webp", "svg"
+    private static final String SVG_TYPE = "image/svg+xml";
+
+    // Allowed extensions and the one media type each must declare and sniff as
+    private static final Map<String, String> EXTENSION_TYPES = Map.of(
+        "jpg", "image/jpeg", "jpeg", "image/jpeg", "png", "image/png",
+        "gif", "image/gif", "webp", "image/webp", "svg", SVG_TYPE
     );
 
+    private static final Set<String> ALLOWED_IMAGE_TYPES = Set.copyOf(EXTENSION_TYPES.values());
+
+    // Sorted once for error messages (Set iteration order is unspecified)
+    private static final String ALLOWED_TYPES_LIST = String.join(", ", new TreeSet<>(ALLOWED_IMAGE_TYPES));
+    private static final String ALLOWED_EXTENSIONS_LIST = String.join(", ", new TreeSet<>(EXTENSION_TYPES.keySet()));
+
+    private static final Pattern FOLDER_PATTERN = Pattern.compile("[a-z0-9][a-z0-9-]{0,49}");
+
     @PostConstruct
     public void init() {
         try {
@@ -60,16 +101,17 @@ public class FileStorageService {
     }
 
     /**
-     * Store file with auto-generated unique name
+     * Store file with auto-generated unique name, or under its content hash when content-addressed
      */
     public String storeFile(MultipartFile file, String folder) {
         validateFile(file);
 
-        String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
-        String extension = getExtension(originalFilename);
-        String newFilename = UUID.randomUUID().toString() + "." + extension;
-
-        return storeFileWithName(file, folder, newFilename);
+        try (InputStream inputStream = file.getInputStream()) {
+            return commit(stage(inputStream, folder, file.getOriginalFilename(), file.getContentType()));
+        } catch (IOException e) {
+            log.error("Could not read upload for {}", folder, e);
+            throw new BadRequestException("Could not store file: " + e.getMessage());
+        }
     }
 
     /**
@@ -78,33 +120,173 @@ public class FileStorageService {
     public String storeFileWithName(MultipartFile file, String folder, String filename) {
         validateFile(file);
 
+        try (InputStream inputStream = file.getInputStream()) {
+            return commit(stage(inputStream, folder, file.getOriginalFilename(), file.getContentType(), false), filename);
+        } catch (IOException e) {
+            log.error("Could not read upload {}", filename, e);
+            throw new BadRequestException("Could not store file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stream an upload into a temp file in its destination folder and compute its SHA-256
+     * on the way. The first bytes are sniffed before anything touches the disk and must
+     * match both the declared type and the extension; SVGs are written through
+     * SvgSanitizer. Nothing is visible under /uploads until {@link #commit}; a failed
+     * stage leaves no file behind.
+     */
+    public StagedUpload stage(InputStream inputStream, String folder, String originalFilename, String contentType) {
+        return stage(inputStream, folder, originalFilename, contentType, contentAddressed);
+    }
+
+    private StagedUpload stage(InputStream inputStream, String folder, String originalFilename, String contentType,
+                               boolean contentAddressed) {
+        validateType(contentType, originalFilename);
+        validateFolder(folder);
+
+        String extension = getExtension(StringUtils.cleanPath(originalFilename));
+        String type = contentType.toLowerCase();
+        SizeLimitedInputStream limited = new SizeLimitedInputStream(inputStream, maxFileSize);
+        long started = System.nanoTime();
+        Path temp = null;
         try {
-            Path folderPath = Paths.get(uploadDir, folder);
-            if (!Files.exists(folderPath)) {
-                Files.createDirectories(folderPath);
-                log.info("Created folder: {}", folderPath.toAbsolutePath());
+            // Garbage and disguised files cost one small read: no temp file, no disk I/O
+            byte[] header = limited.readNBytes(MagicBytes.SNIFF_LENGTH);
+            if (header.length == 0) {
+                throw reject("empty", "File is empty");
+            }
+            String detected = MagicBytes.detect(header);
+            if (!type.equals(detected) || !type.equals(EXTENSION_TYPES.get(extension.toLowerCase()))) {
+                throw reject("content_mismatch", "File content does not match its type or extension");
             }
 
-            Path targetPath = folderPath.resolve(filename);
+            Path folderPath = contentAddressed
+                    ? Paths.get(uploadDir, CONTENT_ADDRESSED_DIR, folder)
+                    : Paths.get(uploadDir, folder);
+            Files.createDirectories(folderPath);
 
-            try (InputStream inputStream = file.getInputStream()) {
-                Files.copy(inputStream, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            // Same directory as the target, so commit is a rename
+            temp = Files.createTempFile(folderPath, ".upload-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            InputStream content = new SequenceInputStream(new ByteArrayInputStream(header), limited);
+            try (OutputStream out = new DigestOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)), digest)) {
+                if (SVG_TYPE.equals(type)) {
+                    // Digest and size are of the sanitised document, which is what gets stored
+                    SvgSanitizer.sanitize(content, out);
+                } else {
+                    content.transferTo(out);
+                }
             }
 
-            String relativePath = "/uploads/" + folder + "/" + filename;
+            StagedUpload staged = new StagedUpload(temp, folder, extension, type,
+                    HexFormat.of().formatHex(digest.digest()), Files.size(temp), contentAddressed, started);
+            temp = null;
+            return staged;
+
+        } catch (XMLStreamException e) {
+            if (limited.exceeded()) {
+                throw reject("too_large", sizeLimitMessage());
+            }
+            throw reject("invalid_svg", "Invalid SVG: " + e.getMessage());
+        } catch (IOException e) {
+            // The declared size of a streamed part is not known up front, so the limit is enforced while reading
+            if (limited.exceeded()) {
+                throw reject("too_large", sizeLimitMessage());
+            }
+            log.error("Could not store file in {}", folder, e);
+            recordStore(type, "error", started);
+            throw new BadRequestException("Could not store file: " + e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Move a staged upload into place and return its URL. Content-addressed uploads are named
+     * by their digest and an existing file with that name is reused; others get a random UUID.
+     */
+    public String commit(StagedUpload upload) {
+        return commit(upload, upload.contentAddressed()
+                ? upload.digest() + "." + normalizeExtension(upload.extension())
+                : UUID.randomUUID() + "." + upload.extension());
+    }
+
+    private String commit(StagedUpload upload, String filename) {
+        String outcome = "error";
+        try {
+            Path targetPath = upload.temp().resolveSibling(filename);
+            String relativePath = "/uploads/" + (upload.contentAddressed() ? CONTENT_ADDRESSED_DIR + "/" : "")
+                    + upload.folder() + "/" + filename;
+
+            if (upload.contentAddressed() && Files.exists(targetPath)) {
+                log.info("Duplicate upload, reusing {}", relativePath);
+                outcome = "duplicate";
+                return relativePath;
+            }
+            // Same bytes under the same name, so losing a race to a concurrent upload is harmless
+            Files.move(upload.temp(), targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            writeGzipSibling(targetPath);
+
             log.info("File stored: {}", relativePath);
+            DistributionSummary.builder("uploads.bytes")
+                    .description("Size of stored uploads")
+                    .baseUnit("bytes")
+                    .tag("type", upload.type())
+                    .register(meterRegistry)
+                    .record(upload.size());
+            outcome = "success";
             return relativePath;
 
         } catch (IOException e) {
-            log.error("Could not store file {}", filename, e);
+            log.error("Could not store file in {}", upload.folder(), e);
             throw new BadRequestException("Could not store file: " + e.getMessage());
+        } finally {
+            discard(upload);
+            recordStore(upload.type(), outcome, upload.startedNanos());
         }
     }
 
     /**
-     * Delete file
+     * Drop a staged upload that will not be committed (a no-op once committed)
+     */
+    public void discard(StagedUpload upload) {
+        deleteQuietly(upload.temp());
+    }
+
+    /**
+     * An upload written to a dot-prefixed temp file (never served) next to its final name
+     */
+    public record StagedUpload(Path temp, String folder, String extension, String type, String digest,
+                               long size, boolean contentAddressed, long startedNanos) {}
+
+    private void recordStore(String type, String outcome, long startedNanos) {
+        Timer.builder("uploads.store")
+                .description("Time to write an upload to storage")
+                .tags("type", type, "outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Whether a path is a content-addressed upload (immutable, possibly shared by several records)
+     */
+    public static boolean isContentAddressed(String filePath) {
+        return filePath != null && filePath.startsWith("/uploads/" + CONTENT_ADDRESSED_DIR + "/");
+    }
+
+    /**
+     * Delete file and its resized/WebP variants
      */
     public boolean deleteFile(String filePath) {
+        // Deduplicated files can back several articles/products; orphans are left in place
+        if (isContentAddressed(filePath)) {
+            log.info("Keeping content-addressed file {}: it may be referenced elsewhere", filePath);
+            return false;
+        }
+        imageProcessingService.deleteVariants(filePath);
         try {
             // Remove leading /uploads/ if present
             String relativePath = filePath.startsWith("/uploads/")
@@ -114,6 +296,8 @@ public class FileStorageService {
             Path path = Paths.get(uploadDir, relativePath);
             if (Files.exists(path)) {
                 Files.delete(path);
+                Files.deleteIfExists(path.resolveSibling(path.getFileName() + ".gz"));
+                Files.deleteIfExists(path.resolveSibling(path.getFileName() + ".br"));
                 log.info("File deleted: {}", filePath);
                 return true;
             }
@@ -137,24 +321,84 @@ public class FileStorageService {
 
     private void validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
-            throw new BadRequestException("File is empty");
+            throw reject("empty", "File is empty");
         }
 
         if (file.getSize() > maxFileSize) {
-            throw new BadRequestException("File size exceeds maximum allowed size of " + (maxFileSize / 1024 / 1024) + "MB");
+            throw reject("too_large", sizeLimitMessage());
         }
 
-        String contentType = file.getContentType();
+        validateType(file.getContentType(), file.getOriginalFilename());
+    }
+
+    private void validateType(String contentType, String filename) {
         if (contentType == null || !ALLOWED_IMAGE_TYPES.contains(contentType.toLowerCase())) {
-            throw new BadRequestException("File type not allowed. Allowed types: " + String.join(", ", ALLOWED_IMAGE_TYPES));
+            throw reject("type_not_allowed", "File type not allowed. Allowed types: " + ALLOWED_TYPES_LIST);
         }
 
-        String filename = file.getOriginalFilename();
         if (filename != null) {
             String extension = getExtension(filename).toLowerCase();
-            if (!ALLOWED_EXTENSIONS.contains(extension)) {
-                throw new BadRequestException("File extension not allowed. Allowed: " + String.join(", ", ALLOWED_EXTENSIONS));
+            if (!EXTENSION_TYPES.containsKey(extension)) {
+                throw reject("extension_not_allowed", "File extension not allowed. Allowed: " + ALLOWED_EXTENSIONS_LIST);
+            }
+        }
+    }
+
+    // Folders become directory names: no separators or dot segments
+    private void validateFolder(String folder) {
+        if (folder == null || !FOLDER_PATTERN.matcher(folder).matches()) {
+            throw reject("invalid_folder", "Invalid upload folder");
+        }
+    }
+
+    // Rejections are counted by reason, so garbage uploads show up on a dashboard rather than only in logs
+    private BadRequestException reject(String reason, String message) {
+        Counter.builder("uploads.rejected")
+                .description("Uploads refused by validation")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return new BadRequestException(message);
+    }
+
+    private String sizeLimitMessage() {
+        return "File size exceeds maximum allowed size of " + (maxFileSize / 1024 / 1024) + "MB";
+    }
+
+    // One name per content: "photo.JPEG" and "photo.jpg" map to the same file
+    private String normalizeExtension(String extension) {
+        String lower = extension.toLowerCase();
+        return "jpeg".equals(lower) ? "jpg" : lower;
+    }
+
+    // SVG is text: a gzip copy next to it lets UploadController skip compressing on every request
+    private void writeGzipSibling(Path file) {
+        if (!"svg".equalsIgnoreCase(getExtension(file.getFileName().toString()))) {
+            return;
+        }
+        Path gzip = file.resolveSibling(file.getFileName() + ".gz");
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(file.getParent(), ".gzip-", ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                Files.copy(file, out);
             }
+            Files.move(temp, gzip, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("Could not write {}", gzip, e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temp file {}", path, e);
         }
     }
 
@@ -164,4 +408,46 @@ public class FileStorageService {
         }
         return filename.substring(filename.lastIndexOf(".") + 1);
     }
+
+    // Fails reads past the limit; exceeded() tells that apart from other I/O errors (the XML parser wraps them)
+    private static final class SizeLimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+        private boolean exceeded;
+
+        SizeLimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        boolean exceeded() {
+            return exceeded;
+        }
+
+        private void count(int read) throws IOException {
+            count += read;
+            if (count > limit) {
+                exceeded = true;
+                throw new IOException("Upload exceeds " + limit + " bytes");
+            }
+        }
+    }
 }
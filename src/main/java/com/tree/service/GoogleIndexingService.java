@@ -1,6 +1,10 @@
 package com.tree.service;
 
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
@@ -14,7 +18,6 @@ import com.google.auth.oauth2.ServiceAccountCredentials;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayInputStream;
@@ -22,6 +25,9 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Google Indexing API Service
@@ -33,6 +39,8 @@ import java.util.Collections;
  * 3. Enable Indexing API
  * 4. Download JSON key file
  * 5. Add service account email to Search Console as owner
+ *
+ * Calls are synchronous; SearchEngineNotificationQueue batches and retries them.
  */
 @Slf4j
 @Service
@@ -40,6 +48,8 @@ public class GoogleIndexingService {
 
     private static final String INDEXING_SCOPE = "https://www.googleapis.com/auth/indexing";
     private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+    // Indexing API accepts at most 100 calls per batch request
+    public static final int MAX_BATCH_SIZE = 100;
 
     @Value("${google.indexing.enabled:false}")
     private boolean enabled;
@@ -53,7 +63,11 @@ public class GoogleIndexingService {
     @Value("${app.site-url:http://localhost:3000}")
     private String siteUrl;
 
+    @Value("${google.indexing.root-url:https://indexing.googleapis.com/}")
+    private String rootUrl;
+
     private Indexing indexingService;
+    private HttpRequestInitializer requestInitializer;
 
     @PostConstruct
     public void init() {
@@ -72,12 +86,13 @@ public class GoogleIndexingService {
                 return;
             }
 
-            HttpRequestInitializer requestInitializer = new HttpCredentialsAdapter(
+            requestInitializer = new HttpCredentialsAdapter(
                     credentials.createScoped(Collections.singletonList(INDEXING_SCOPE))
             );
 
             indexingService = new Indexing.Builder(httpTransport, JSON_FACTORY, requestInitializer)
                     .setApplicationName("Tree Website")
+                    .setRootUrl(rootUrl)
                     .build();
 
             log.info("Google Indexing API initialized successfully");
@@ -108,79 +123,53 @@ public class GoogleIndexingService {
     }
 
     /**
-     * Notify Google that a URL has been updated (new or modified content)
-     */
-    @Async
-    public void notifyUrlUpdated(String path) {
-        notifyUrl(path, "URL_UPDATED");
-    }
-
-    /**
-     * Notify Google that a URL has been deleted
-     */
-    @Async
-    public void notifyUrlDeleted(String path) {
-        notifyUrl(path, "URL_DELETED");
-    }
-
-    /**
-     * Notify Google about article publish/update
-     */
-    @Async
-    public void notifyArticlePublished(String slug) {
-        String path = "/blog/" + slug;
-        notifyUrlUpdated(path);
-    }
-
-    /**
-     * Notify Google about article deletion
-     */
-    @Async
-    public void notifyArticleDeleted(String slug) {
-        String path = "/blog/" + slug;
-        notifyUrlDeleted(path);
-    }
-
-    /**
-     * Notify Google about product publish/update
+     * Absolute URL for a site path
      */
-    @Async
-    public void notifyProductPublished(String slug) {
-        String path = "/product/" + slug;
-        notifyUrlUpdated(path);
+    public String toUrl(String path) {
+        return siteUrl + path;
     }
 
     /**
-     * Notify Google about product deletion
+     * Publish notifications through the batch endpoint, MAX_BATCH_SIZE per HTTP call.
+     * Returns error messages keyed by URL for the notifications that failed.
      */
-    @Async
-    public void notifyProductDeleted(String slug) {
-        String path = "/product/" + slug;
-        notifyUrlDeleted(path);
-    }
-
-    private void notifyUrl(String path, String type) {
-        if (!enabled || indexingService == null) {
-            log.debug("Google Indexing API is disabled, skipping notification for: {}", path);
-            return;
+    public Map<String, String> publish(List<UrlNotification> notifications) {
+        Map<String, String> failures = new HashMap<>();
+        if (!isEnabled() || notifications.isEmpty()) {
+            return failures;
         }
 
-        String url = siteUrl + path;
-
-        try {
-            UrlNotification notification = new UrlNotification()
-                    .setUrl(url)
-                    .setType(type);
+        for (int from = 0; from < notifications.size(); from += MAX_BATCH_SIZE) {
+            List<UrlNotification> chunk = notifications.subList(from, Math.min(notifications.size(), from + MAX_BATCH_SIZE));
+            try {
+                BatchRequest batch = indexingService.batch(requestInitializer);
+                for (UrlNotification notification : chunk) {
+                    indexingService.urlNotifications().publish(notification).queue(batch, callback(notification, failures));
+                }
+                batch.execute();
+                log.info("Google Indexing API: published batch of {} notifications", chunk.size());
+            } catch (Exception e) {
+                log.error("Google Indexing API batch error: {}", e.getMessage());
+                chunk.forEach(notification -> failures.putIfAbsent(notification.getUrl(), e.getMessage()));
+            }
+        }
+        return failures;
+    }
 
-            PublishUrlNotificationResponse response = indexingService.urlNotifications()
-                    .publish(notification)
-                    .execute();
+    private JsonBatchCallback<PublishUrlNotificationResponse> callback(UrlNotification notification,
+                                                                      Map<String, String> failures) {
+        return new JsonBatchCallback<>() {
+            @Override
+            public void onSuccess(PublishUrlNotificationResponse response, HttpHeaders responseHeaders) {
+                log.debug("Google Indexing API: {} - {}", notification.getType(), notification.getUrl());
+            }
 
-            log.info("Google Indexing API: {} - {} - Notified at: {}",
-                    type, url, response.getUrlNotificationMetadata().getLatestUpdate().getNotifyTime());
-        } catch (Exception e) {
-            log.error("Google Indexing API error for {}: {}", url, e.getMessage());
-        }
+            @Override
+            public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                log.warn("Google Indexing API error for {}: {}", notification.getUrl(), error.getMessage());
+                failures.put(notification.getUrl(), error.getCode() + " " + error.getMessage());
+            }
+        };
     }
 
     public boolean isEnabled() {
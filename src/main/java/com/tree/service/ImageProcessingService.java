@@ -0,0 +1,341 @@
+package com.tree.service;
+
+import com.tree.config.AsyncConfig;
+import com.tree.dto.upload.UploadResponse;
+import com.tree.util.ExifOrientation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+
+/**
+ * Responsive derivatives for raster uploads.
+ *
+ * The upload request only reads the image header (intrinsic width/height) and
+ * plans the variant names; decoding, resizing and encoding run on the bounded
+ * imageProcessingExecutor. Each configured width below the original gets a
+ * variant in the source format plus a WebP re-encode, and the original gets a
+ * full-size WebP copy. Variants are encoded from pixels only, so EXIF/GPS and
+ * comments are not carried over; the original file is kept byte-for-byte.
+ * A JPEG's EXIF orientation is therefore applied to the pixels before resizing,
+ * and the reported width/height are those of the image as displayed.
+ */
+@Slf4j
+@Service
+public class ImageProcessingService {
+
+    private static final String UPLOAD_PREFIX = "/uploads/";
+    private static final String WEBP = "webp";
+    private static final String JPEG = "jpeg";
+
+    // Extension -> ImageIO format; GIF (animation) and SVG (vector) are served as uploaded
+    private static final Map<String, String> RASTER_FORMATS = Map.of(
+            "jpg", JPEG, "jpeg", JPEG, "png", "png", "webp", WEBP);
+    private static final Map<String, String> EXTENSIONS = Map.of(JPEG, "jpg", "png", "png", WEBP, WEBP);
+
+    private final Executor imageProcessingExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Path uploadRoot;
+    private final List<Integer> widths;
+    private final float quality;
+    private final long maxPixels;
+
+    // Cleared if the native WebP encoder fails to load on this platform
+    private volatile boolean webpEnabled;
+
+    public ImageProcessingService(@Qualifier(AsyncConfig.IMAGE_PROCESSING_EXECUTOR) Executor imageProcessingExecutor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.upload.dir:uploads}") String uploadDir,
+                                  @Value("${app.upload.images.widths:320,640,1280}") List<Integer> widths,
+                                  @Value("${app.upload.images.quality:0.82}") float quality,
+                                  @Value("${app.upload.images.max-pixels:40000000}") long maxPixels,
+                                  @Value("${app.upload.images.webp-enabled:true}") boolean webpEnabled) {
+        this.imageProcessingExecutor = imageProcessingExecutor;
+        this.meterRegistry = meterRegistry;
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.widths = widths.stream().distinct().sorted(Comparator.reverseOrder()).toList();
+        this.quality = quality;
+        this.maxPixels = maxPixels;
+        this.webpEnabled = webpEnabled && ImageIO.getImageWritersByFormatName(WEBP).hasNext();
+        if (webpEnabled && !this.webpEnabled) {
+            log.warn("No ImageIO WebP writer on the classpath; uploads get resized variants only");
+        }
+    }
+
+    /**
+     * Describe a stored upload and queue its derivatives. The variant URLs are
+     * returned right away and appear on disk once the background job finishes.
+     */
+    public UploadResponse process(String url) {
+        UploadResponse.UploadResponseBuilder response = UploadResponse.builder()
+                .url(url)
+                .filename(url.substring(url.lastIndexOf('/') + 1));
+
+        Path source = resolve(url).orElse(null);
+        String format = source != null ? RASTER_FORMATS.get(extension(url)) : null;
+        Dimensions size = format != null ? dimensions(source).orElse(null) : null;
+        if (size == null) {
+            return response.build();
+        }
+        response.width(size.width()).height(size.height());
+
+        // Decompression bomb guard: a small file can still decode to gigabytes of pixels
+        if ((long) size.width() * size.height() > maxPixels) {
+            log.warn("Skipping derivatives for {}: {}x{} exceeds {} pixels", url, size.width(), size.height(), maxPixels);
+            return response.variants(List.of()).build();
+        }
+
+        List<Derivative> plan = plan(url, source, format, size);
+        // A deduplicated upload already has its variants
+        if (plan.stream().anyMatch(derivative -> !Files.exists(derivative.target()))) {
+            imageProcessingExecutor.execute(() -> generate(url, source, plan));
+        }
+        return response.variants(plan.stream()
+                .map(derivative -> new UploadResponse.Variant(derivative.url(), derivative.width(), derivative.format()))
+                .toList()).build();
+    }
+
+    /**
+     * Displayed size of a local upload (headers only, no pixel decode); empty for external URLs
+     */
+    public Optional<Dimensions> dimensionsOf(String url) {
+        return resolve(url).flatMap(this::dimensions);
+    }
+
+    /**
+     * Remove every derivative planned for an upload; the original is left to the caller
+     */
+    public void deleteVariants(String url) {
+        Path source = resolve(url).orElse(null);
+        if (source == null || !Files.isDirectory(source.getParent())) {
+            return;
+        }
+        String base = stripExtension(source.getFileName().toString());
+        Pattern variant = Pattern.compile(Pattern.quote(base) + "(-\\d+w\\.(jpg|png|webp)|\\.webp)");
+        String original = source.getFileName().toString();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(source.getParent(),
+                path -> !path.getFileName().toString().equals(original)
+                        && variant.matcher(path.getFileName().toString()).matches())) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete variants of {}", url, e);
+        }
+    }
+
+    // Widest first, never upscaled; WebP sources fall back to JPEG for clients without WebP
+    private List<Derivative> plan(String url, Path source, String format, Dimensions size) {
+        String baseUrl = stripExtension(url);
+        String baseName = stripExtension(source.getFileName().toString());
+        String resizedFormat = WEBP.equals(format) ? JPEG : format;
+        boolean webp = webpEnabled;
+
+        List<Derivative> plan = new ArrayList<>();
+        if (webp && !WEBP.equals(format)) {
+            plan.add(derivative(source, baseUrl, baseName, "", size.width(), WEBP));
+        }
+        for (int width : widths) {
+            if (width >= size.width()) {
+                continue;
+            }
+            String suffix = "-" + width + "w";
+            plan.add(derivative(source, baseUrl, baseName, suffix, width, resizedFormat));
+            if (webp) {
+                plan.add(derivative(source, baseUrl, baseName, suffix, width, WEBP));
+            }
+        }
+        return plan;
+    }
+
+    private static Derivative derivative(Path source, String baseUrl, String baseName, String suffix,
+                                         int width, String format) {
+        String name = baseName + suffix + "." + EXTENSIONS.get(format);
+        return new Derivative(source.resolveSibling(name), baseUrl + suffix + "." + EXTENSIONS.get(format), width, format);
+    }
+
+    // Decodes once and scales each width from the previous (larger) result
+    private void generate(String url, Path source, List<Derivative> plan) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            BufferedImage image = ImageIO.read(source.toFile());
+            if (image == null) {
+                throw new IOException("No ImageIO reader for " + source.getFileName());
+            }
+            BufferedImage current = ExifOrientation.apply(image, ExifOrientation.read(source));
+            for (Derivative derivative : plan) {
+                if (current.getWidth() != derivative.width()) {
+                    current = resize(current, derivative.width());
+                }
+                write(current, derivative);
+            }
+            outcome = "success";
+            log.debug("Generated {} derivative(s) for {}", plan.size(), url);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate derivatives for {}: {}", url, e.getMessage());
+        } finally {
+            sample.stop(Timer.builder("images.process")
+                    .description("Time to generate the derivatives of one upload")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    // Halve with bilinear filtering until within 2x, then one last step: close to area-averaged quality
+    private static BufferedImage resize(BufferedImage image, int width) {
+        BufferedImage current = image;
+        int targetHeight = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+        while (current.getWidth() > width) {
+            int nextWidth = Math.max(width, current.getWidth() / 2);
+            int nextHeight = nextWidth == width ? targetHeight : Math.max(targetHeight, current.getHeight() / 2);
+            current = draw(current, nextWidth, nextHeight, null);
+        }
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage image, int width, int height, Color background) {
+        int type = image.getColorModel().hasAlpha() && background == null
+                ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (background != null) {
+                graphics.setColor(background);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    // Encoded to a temp file and moved into place, so a partial variant is never served
+    private void write(BufferedImage image, Derivative derivative) throws IOException {
+        if (WEBP.equals(derivative.format()) && !webpEnabled) {
+            return;
+        }
+        BufferedImage pixels = JPEG.equals(derivative.format()) && image.getColorModel().hasAlpha()
+                ? draw(image, image.getWidth(), image.getHeight(), Color.WHITE)
+                : image;
+
+        Path temp = Files.createTempFile(derivative.target().getParent(), ".variant-", ".tmp");
+        try {
+            Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(derivative.format());
+            if (!writers.hasNext()) {
+                throw new IOException("No ImageIO writer for " + derivative.format());
+            }
+            ImageWriter writer = writers.next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(out);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if (!"png".equals(derivative.format()) && param.canWriteCompressed()) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    String[] types = param.getCompressionTypes();
+                    if (types != null && types.length > 0) {
+                        param.setCompressionType(types[0]);
+                    }
+                    param.setCompressionQuality(quality);
+                }
+                // No metadata argument: the derivative carries pixels only
+                writer.write(null, new IIOImage(pixels, null, null), param);
+            } catch (LinkageError e) {
+                // Native encoder missing for this OS/arch: stop planning WebP variants
+                webpEnabled = false;
+                log.warn("WebP encoder unavailable, disabling WebP variants: {}", e.getMessage());
+                return;
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, derivative.target(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            meterRegistry.counter("images.variants", "format", derivative.format()).increment();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Optional<Dimensions> dimensions(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return Optional.empty();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ("jpeg".equalsIgnoreCase(reader.getFormatName()) && ExifOrientation.swapsAxes(ExifOrientation.read(file))) {
+                    return Optional.of(new Dimensions(height, width));
+                }
+                return Optional.of(new Dimensions(width, height));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            log.debug("Could not read image size of {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // /uploads/products/x.jpg -> <upload dir>/products/x.jpg, refusing paths that escape the upload dir
+    private Optional<Path> resolve(String url) {
+        if (url == null || !url.startsWith(UPLOAD_PREFIX)) {
+            return Optional.empty();
+        }
+        Path path = uploadRoot.resolve(url.substring(UPLOAD_PREFIX.length())).normalize();
+        return path.startsWith(uploadRoot) && !path.equals(uploadRoot) ? Optional.of(path) : Optional.empty();
+    }
+
+    private static String extension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot < 0 ? "" : filename.substring(dot + 1).toLowerCase();
+    }
+
+    private static String stripExtension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot < 0 ? filename : filename.substring(0, dot);
+    }
+
+    /**
+     * Intrinsic pixel size of an image
+     */
+    public record Dimensions(int width, int height) {}
+
+    private record Derivative(Path target, String url, int width, String format) {}
+}
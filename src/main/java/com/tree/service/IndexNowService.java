@@ -3,8 +3,8 @@ package com.tree.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
@@ -21,127 +21,72 @@ import java.util.Map;
  * 1. Generate a key (8-128 hex characters)
  * 2. Create file at /[key].txt containing the key
  * 3. Set INDEXNOW_KEY env variable
+ *
+ * Calls are synchronous; SearchEngineNotificationQueue batches and retries them.
  */
 @Slf4j
 @Service
 public class IndexNowService {
 
-    private static final String INDEXNOW_API = "https://api.indexnow.org/indexnow";
-
-    @Value("${indexnow.enabled:false}")
-    private boolean enabled;
-
-    @Value("${indexnow.key:}")
-    private String apiKey;
-
-    @Value("${app.site-url:http://localhost:3000}")
-    private String siteUrl;
+    // Protocol limit per POST
+    public static final int MAX_URLS_PER_REQUEST = 10_000;
 
+    private final boolean enabled;
+    private final String apiKey;
+    private final String siteUrl;
+    private final String endpoint;
     private final RestTemplate restTemplate;
 
-    public IndexNowService() {
+    public IndexNowService(@Value("${indexnow.enabled:false}") boolean enabled,
+                           @Value("${indexnow.key:}") String apiKey,
+                           @Value("${app.site-url:http://localhost:3000}") String siteUrl,
+                           @Value("${indexnow.endpoint:https://api.indexnow.org/indexnow}") String endpoint) {
+        this.enabled = enabled;
+        this.apiKey = apiKey;
+        this.siteUrl = siteUrl;
+        this.endpoint = endpoint;
         this.restTemplate = new RestTemplate();
     }
 
     /**
-     * Notify IndexNow about article publish/update
-     */
-    @Async
-    public void notifyArticlePublished(String slug) {
-        String path = "/blog/" + slug;
-        notifyUrl(path);
-    }
-
-    /**
-     * Notify IndexNow about product publish/update
+     * Absolute URL for a site path
      */
-    @Async
-    public void notifyProductPublished(String slug) {
-        String path = "/product/" + slug;
-        notifyUrl(path);
-    }
-
-    /**
-     * Notify IndexNow about a single URL update
-     */
-    @Async
-    public void notifyUrl(String path) {
-        if (!enabled || apiKey == null || apiKey.isBlank()) {
-            log.debug("IndexNow is disabled or no API key configured, skipping notification for: {}", path);
-            return;
-        }
-
-        String fullUrl = siteUrl + path;
-
-        try {
-            String host = extractHost(siteUrl);
-            String keyLocation = siteUrl + "/" + apiKey + ".txt";
-
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("host", host);
-            payload.put("key", apiKey);
-            payload.put("keyLocation", keyLocation);
-            payload.put("urlList", List.of(fullUrl));
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
-
-            ResponseEntity<String> response = restTemplate.postForEntity(INDEXNOW_API, request, String.class);
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                log.info("IndexNow: Successfully notified - {}", fullUrl);
-            } else {
-                log.warn("IndexNow: Notification returned status {} for {}", response.getStatusCode(), fullUrl);
-            }
-        } catch (Exception e) {
-            log.error("IndexNow: Failed to notify for {}: {}", fullUrl, e.getMessage());
-        }
+    public String toUrl(String path) {
+        return siteUrl + path;
     }
 
     /**
-     * Notify IndexNow about multiple URLs at once (batch)
+     * Submit absolute URLs, MAX_URLS_PER_REQUEST per POST.
+     * Throws RestClientException when IndexNow rejects or cannot be reached.
      */
-    @Async
-    public void notifyUrls(List<String> paths) {
-        if (!enabled || apiKey == null || apiKey.isBlank()) {
-            log.debug("IndexNow is disabled or no API key configured");
+    public void submit(List<String> urls) {
+        if (!isEnabled() || urls == null || urls.isEmpty()) {
             return;
         }
 
-        if (paths == null || paths.isEmpty()) {
-            return;
-        }
+        String host = extractHost(siteUrl);
+        String keyLocation = siteUrl + "/" + apiKey + ".txt";
 
-        try {
-            String host = extractHost(siteUrl);
-            String keyLocation = siteUrl + "/" + apiKey + ".txt";
-
-            List<String> fullUrls = paths.stream()
-                    .map(path -> siteUrl + path)
-                    .toList();
+        for (int from = 0; from < urls.size(); from += MAX_URLS_PER_REQUEST) {
+            List<String> batch = urls.subList(from, Math.min(urls.size(), from + MAX_URLS_PER_REQUEST));
 
             Map<String, Object> payload = new HashMap<>();
             payload.put("host", host);
             payload.put("key", apiKey);
             payload.put("keyLocation", keyLocation);
-            payload.put("urlList", fullUrls);
+            payload.put("urlList", batch);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
 
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
 
-            ResponseEntity<String> response = restTemplate.postForEntity(INDEXNOW_API, request, String.class);
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                log.info("IndexNow: Successfully notified {} URLs", fullUrls.size());
-            } else {
-                log.warn("IndexNow: Batch notification returned status {}", response.getStatusCode());
+            // 4xx/5xx surface as HttpStatusCodeException
+            ResponseEntity<String> response = restTemplate.postForEntity(endpoint, request, String.class);
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                throw new RestClientException("IndexNow returned status " + response.getStatusCode());
             }
-        } catch (Exception e) {
-            log.error("IndexNow: Failed batch notification: {}", e.getMessage());
+            log.info("IndexNow: Successfully notified {} URLs", batch.size());
         }
     }
 
@@ -1,5 +1,7 @@
 package com.tree.service;
 
+import com.tree.config.FullTextSearchInitializer;
+import com.tree.dto.CursorPageResponse;
 import com.tree.dto.PageResponse;
 import com.tree.dto.category.CategoryResponse;
 import com.tree.dto.product.ProductRequest;
@@ -9,11 +11,14 @@ import com.tree.entity.Product;
 import com.tree.exception.ResourceNotFoundException;
 import com.tree.repository.CategoryRepository;
 import com.tree.repository.ProductRepository;
+import com.tree.service.search.InMemorySearchService;
+import com.tree.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +27,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 import static com.tree.util.ServiceUtils.*;
@@ -33,24 +39,64 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ViewCountService viewCountService;
+    private final FullTextSearchInitializer fullTextSearch;
+    private final InMemorySearchService inMemorySearch;
+    private final CountCache countCache;
 
     private static final String ENTITY_NAME = "Product";
+    private static final int MAX_FEED_SIZE = 50;
 
     // ==================== READ Operations ====================
 
+    // Totals come from CountCache, or are skipped when withTotal is false
     public PageResponse<ProductResponse> getAllProducts(Pageable pageable) {
-        return mapPage(productRepository.findByDeletedFalse(pageable));
+        return mapSlice(productRepository.findSliceByDeletedFalse(pageable), true,
+                "all", productRepository::countByDeletedFalse);
     }
 
     public PageResponse<ProductResponse> getActiveProducts(Pageable pageable) {
-        return mapPage(productRepository.findByIsActiveTrueAndDeletedFalse(pageable));
+        return getActiveProducts(pageable, true);
+    }
+
+    public PageResponse<ProductResponse> getActiveProducts(Pageable pageable, boolean withTotal) {
+        return mapSlice(productRepository.findSliceByIsActiveTrueAndDeletedFalse(pageable), withTotal,
+                "active", productRepository::countByIsActiveTrueAndDeletedFalse);
     }
 
     public PageResponse<ProductResponse> getProductsByCategory(UUID categoryId, Pageable pageable) {
-        return mapPage(productRepository.findByCategoryIdAndIsActiveTrueAndDeletedFalse(categoryId, pageable));
+        return getProductsByCategory(categoryId, pageable, true);
+    }
+
+    public PageResponse<ProductResponse> getProductsByCategory(UUID categoryId, Pageable pageable, boolean withTotal) {
+        return mapSlice(productRepository.findSliceByCategoryIdAndIsActiveTrueAndDeletedFalse(categoryId, pageable),
+                withTotal, "active:category:" + categoryId,
+                () -> productRepository.countByCategoryIdAndIsActiveTrueAndDeletedFalse(categoryId));
     }
 
+    /**
+     * Keyset page of active products, newest first; no OFFSET and no COUNT
+     */
+    public CursorPageResponse<ProductResponse> getActiveFeed(String cursor, int size) {
+        size = Math.clamp(size, 1, MAX_FEED_SIZE);
+        CursorCodec.Cursor after = CursorCodec.decode(cursor);
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Product> rows = after == null
+                ? productRepository.findActiveFeed(limit)
+                : productRepository.findActiveFeedAfter(after.createdAt(), after.id(), limit);
+        return CursorPageResponse.from(mapList(rows), size,
+                product -> CursorCodec.encode(product.getCreatedAt(), UUID.fromString(product.getId())));
+    }
+
+    // In-memory index when enabled, then PostgreSQL full-text search, then LIKE search
     public PageResponse<ProductResponse> searchProducts(String keyword, Pageable pageable) {
+        if (inMemorySearch.supports(keyword)) {
+            return mapPage(inMemorySearch.searchProducts(keyword, pageable));
+        }
+        if (fullTextSearch.supports(keyword)) {
+            return mapPage(productRepository.fullTextSearch(keyword,
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())));
+        }
         return mapPage(productRepository.searchProducts(keyword, pageable));
     }
 
@@ -66,12 +112,13 @@ public class ProductService {
         return toResponse(findByIdOrThrow(productRepository::findById, id, ENTITY_NAME));
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public ProductResponse getBySlug(String slug) {
         Product product = findOrThrow(productRepository.findBySlugAndDeletedFalse(slug), ENTITY_NAME, "slug", slug);
-        product.setViewCount(product.getViewCount() + 1);
-        productRepository.save(product);
-        return toResponse(product);
+        viewCountService.recordProductView(product.getId());
+        ProductResponse response = toResponse(product);
+        response.setViewCount(viewCountService.productViews(product.getId(), product.getViewCount()));
+        return response;
     }
 
     // ==================== TRASH Operations ====================
@@ -114,6 +161,8 @@ public class ProductService {
         setCategory(product, request.getCategoryId());
         productRepository.save(product);
 
+        inMemorySearch.productChanged(product);
+        countCache.invalidate(CountCache.PRODUCTS);
         log.info("Product created: {}", product.getId());
         return toResponse(product);
     }
@@ -155,6 +204,8 @@ public class ProductService {
         }
 
         productRepository.save(product);
+        inMemorySearch.productChanged(product);
+        countCache.invalidate(CountCache.PRODUCTS);
         log.info("Product updated: {}", id);
         return toResponse(product);
     }
@@ -166,6 +217,8 @@ public class ProductService {
         product.setDeleted(true);
         product.setDeletedAt(LocalDateTime.now());
         productRepository.save(product);
+        inMemorySearch.productChanged(product);
+        countCache.invalidate(CountCache.PRODUCTS);
         log.info("Product soft deleted: {}", id);
     }
 
@@ -176,6 +229,8 @@ public class ProductService {
         product.setDeleted(false);
         product.setDeletedAt(null);
         productRepository.save(product);
+        inMemorySearch.productChanged(product);
+        countCache.invalidate(CountCache.PRODUCTS);
         log.info("Product restored: {}", id);
         return toResponse(product);
     }
@@ -187,6 +242,8 @@ public class ProductService {
             throw new ResourceNotFoundException(ENTITY_NAME, "id", id);
         }
         productRepository.deleteById(id);
+        inMemorySearch.productRemoved(id);
+        countCache.invalidate(CountCache.PRODUCTS);
         log.info("Product permanently deleted: {}", id);
     }
 
@@ -213,6 +270,15 @@ public class ProductService {
         return PageResponse.from(page.map(this::toResponse));
     }
 
+    private PageResponse<ProductResponse> mapSlice(Slice<Product> slice, boolean withTotal,
+                                                   String countFilter, LongSupplier counter) {
+        Slice<ProductResponse> page = slice.map(this::toResponse);
+        if (!withTotal) {
+            return PageResponse.from(page);
+        }
+        return PageResponse.from(page, countCache.count(CountCache.PRODUCTS, countFilter, counter));
+    }
+
     private List<ProductResponse> mapList(List<Product> products) {
         return products.stream().map(this::toResponse).collect(Collectors.toList());
     }
@@ -0,0 +1,346 @@
+package com.tree.service;
+
+import com.google.api.services.indexing.v3.model.UrlNotification;
+import com.tree.config.AsyncConfig;
+import com.tree.entity.SearchEngineNotification;
+import com.tree.entity.SearchEngineNotification.Engine;
+import com.tree.entity.SearchEngineNotification.Type;
+import com.tree.repository.SearchEngineNotificationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Durable, coalescing queue of search engine notifications (transactional outbox).
+ *
+ * Content writes enqueue rows in the same transaction as the change. A scheduled flush sends
+ * due rows in batches (IndexNow: 10k URLs per POST, Google: 100 calls per batch
+ * request), deletes what was sent and reschedules failures with exponential backoff.
+ * Each batch call is timed as search.indexing.requests; queue depth per engine is
+ * sampled after every flush (search.notifications.pending).
+ */
+@Slf4j
+@Service
+public class SearchEngineNotificationQueue {
+
+    private static final String ARTICLE_PATH = "/blog/";
+    private static final int GOOGLE_FLUSH_SIZE = GoogleIndexingService.MAX_BATCH_SIZE * 10;
+
+    // Guarded by version so a row re-enqueued while its send was in flight is kept
+    private static final String DELETE_SENT_SQL =
+            "DELETE FROM search_engine_notifications WHERE id = ? AND version = ?";
+    // Re-enqueue bumps the version too, so a send already in flight does not delete the row
+    private static final String REENQUEUE_SQL =
+            "UPDATE search_engine_notifications SET type = ?, updated_at = ?, version = version + 1 " +
+            "WHERE url = ? AND engine = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO search_engine_notifications " +
+            "(id, url, engine, type, attempts, next_attempt_at, version, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, 0, ?, 0, ?, ?)";
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String RESCHEDULE_SQL =
+            "UPDATE search_engine_notifications SET attempts = attempts + 1, next_attempt_at = ?, last_error = ?, " +
+            "version = version + 1 WHERE id = ? AND version = ?";
+
+    private final SearchEngineNotificationRepository repository;
+    private final GoogleIndexingService googleIndexingService;
+    private final IndexNowService indexNowService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor notificationExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Map<Engine, AtomicLong> pending = new EnumMap<>(Engine.class);
+
+    private final Duration coalesceWindow;
+    private final Duration retryBase;
+    private final Duration retryMax;
+    private final int maxAttempts;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public SearchEngineNotificationQueue(SearchEngineNotificationRepository repository,
+                                         GoogleIndexingService googleIndexingService,
+                                         IndexNowService indexNowService,
+                                         JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager,
+                                         @Qualifier(AsyncConfig.NOTIFICATION_EXECUTOR) Executor notificationExecutor,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${app.notifications.coalesce-window:PT30S}") Duration coalesceWindow,
+                                         @Value("${app.notifications.retry-base:PT1M}") Duration retryBase,
+                                         @Value("${app.notifications.retry-max:PT6H}") Duration retryMax,
+                                         @Value("${app.notifications.max-attempts:8}") int maxAttempts) {
+        this.repository = repository;
+        this.googleIndexingService = googleIndexingService;
+        this.indexNowService = indexNowService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notificationExecutor = notificationExecutor;
+        this.meterRegistry = meterRegistry;
+        this.coalesceWindow = coalesceWindow;
+        this.retryBase = retryBase;
+        this.retryMax = retryMax;
+        this.maxAttempts = maxAttempts;
+
+        for (Engine engine : Engine.values()) {
+            AtomicLong depth = new AtomicLong();
+            pending.put(engine, depth);
+            Gauge.builder("search.notifications.pending", depth, AtomicLong::get)
+                    .description("Queued notifications as of the last flush")
+                    .tag("engine", engineTag(engine))
+                    .register(meterRegistry);
+        }
+    }
+
+    // ==================== Enqueue ====================
+
+    @Transactional
+    public void articlePublished(String slug) {
+        enqueue(ARTICLE_PATH + slug, Type.URL_UPDATED);
+    }
+
+    @Transactional
+    public void articleDeleted(String slug) {
+        enqueue(ARTICLE_PATH + slug, Type.URL_DELETED);
+    }
+
+    /**
+     * Queue a path for every enabled engine; IndexNow has no delete notification
+     */
+    @Transactional
+    public void enqueue(String path, Type type) {
+        if (googleIndexingService.isEnabled()) {
+            upsert(googleIndexingService.toUrl(path), Engine.GOOGLE, type);
+        }
+        if (indexNowService.isEnabled() && type == Type.URL_UPDATED) {
+            upsert(indexNowService.toUrl(path), Engine.INDEXNOW, type);
+        }
+    }
+
+    // One pending row per URL and engine: a repeat only updates the type (latest wins).
+    // Two first enqueues of a URL race on the unique key; the loser rolls back to a savepoint,
+    // keeping the caller's transaction usable, and updates the winner's row instead.
+    private void upsert(String url, Engine engine, Type type) {
+        LocalDateTime now = LocalDateTime.now();
+        if (jdbcTemplate.update(REENQUEUE_SQL, type.name(), now, url, engine.name()) > 0) {
+            return;
+        }
+        Boolean inserted = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+                insert.setObject(1, UUID.randomUUID());
+                insert.setString(2, url);
+                insert.setString(3, engine.name());
+                insert.setString(4, type.name());
+                insert.setObject(5, now.plus(coalesceWindow));
+                insert.setObject(6, now);
+                insert.setObject(7, now);
+                insert.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+                return true;
+            } catch (SQLException e) {
+                if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    throw e;
+                }
+                connection.rollback(savepoint);
+                return false;
+            }
+        });
+        if (!Boolean.TRUE.equals(inserted)) {
+            jdbcTemplate.update(REENQUEUE_SQL, type.name(), now, url, engine.name());
+        }
+    }
+
+    // ==================== Flush ====================
+
+    @Scheduled(fixedDelayString = "${app.notifications.flush-interval-ms:30000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            // Engines are independent, so a slow one does not hold back the other
+            List<CompletableFuture<Void>> flushes = new ArrayList<>();
+            if (indexNowService.isEnabled()) {
+                flushes.add(CompletableFuture.runAsync(
+                        () -> flush(Engine.INDEXNOW, IndexNowService.MAX_URLS_PER_REQUEST, this::sendIndexNow),
+                        notificationExecutor));
+            }
+            if (googleIndexingService.isEnabled()) {
+                flushes.add(CompletableFuture.runAsync(
+                        () -> flush(Engine.GOOGLE, GOOGLE_FLUSH_SIZE, this::sendGoogle),
+                        notificationExecutor));
+            }
+            CompletableFuture.allOf(flushes.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flush(Engine engine, int batchSize, Sender sender) {
+        flushDue(engine, batchSize, sender);
+        pending.get(engine).set(repository.countByEngine(engine));
+    }
+
+    private void flushDue(Engine engine, int batchSize, Sender sender) {
+        List<SearchEngineNotification> due;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            due = repository.findByEngineAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                    engine, now, PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                return;
+            }
+
+            // HTTP calls run outside any transaction
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Map<SearchEngineNotification, String> failures = sender.send(due);
+            sample.stop(Timer.builder("search.indexing.requests")
+                    .description("Batch submissions to search engine indexing APIs")
+                    .tags("engine", engineTag(engine), "outcome", outcome(failures.size(), due.size()))
+                    .register(meterRegistry));
+
+            List<SearchEngineNotification> sent = new ArrayList<>(due);
+            sent.removeAll(failures.keySet());
+            complete(sent, failures);
+            countNotifications(engine, "sent", sent.size());
+            countNotifications(engine, "failed", failures.size());
+
+            log.info("{} notifications flushed: {} sent, {} failed", engine, sent.size(), failures.size());
+            if (!failures.isEmpty()) {
+                // Endpoint is unhappy; leave the rest for the next run
+                return;
+            }
+        } while (due.size() == batchSize);
+    }
+
+    private Map<SearchEngineNotification, String> sendIndexNow(List<SearchEngineNotification> batch) {
+        try {
+            indexNowService.submit(batch.stream().map(SearchEngineNotification::getUrl).toList());
+            return Map.of();
+        } catch (Exception e) {
+            Map<SearchEngineNotification, String> failures = new LinkedHashMap<>();
+            batch.forEach(notification -> failures.put(notification, e.getMessage()));
+            return failures;
+        }
+    }
+
+    private Map<SearchEngineNotification, String> sendGoogle(List<SearchEngineNotification> batch) {
+        List<UrlNotification> notifications = batch.stream()
+                .map(n -> new UrlNotification().setUrl(n.getUrl()).setType(n.getType().name()))
+                .toList();
+        Map<String, String> errors = googleIndexingService.publish(notifications);
+
+        Map<SearchEngineNotification, String> failures = new LinkedHashMap<>();
+        for (SearchEngineNotification notification : batch) {
+            String error = errors.get(notification.getUrl());
+            if (error != null) {
+                failures.put(notification, error);
+            }
+        }
+        return failures;
+    }
+
+    private void complete(List<SearchEngineNotification> sent, Map<SearchEngineNotification, String> failures) {
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> retries = new ArrayList<>();
+
+        for (SearchEngineNotification notification : sent) {
+            deletes.add(new Object[]{notification.getId(), notification.getVersion()});
+        }
+        failures.forEach((notification, error) -> {
+            int attempts = notification.getAttempts() + 1;
+            if (attempts >= maxAttempts) {
+                log.warn("Dropping {} notification for {} after {} attempts: {}",
+                        notification.getEngine(), notification.getUrl(), attempts, error);
+                countNotifications(notification.getEngine(), "dropped", 1);
+                deletes.add(new Object[]{notification.getId(), notification.getVersion()});
+            } else {
+                retries.add(new Object[]{LocalDateTime.now().plus(backoff(attempts)), truncate(error),
+                        notification.getId(), notification.getVersion()});
+            }
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SENT_SQL, deletes);
+            }
+            if (!retries.isEmpty()) {
+                jdbcTemplate.batchUpdate(RESCHEDULE_SQL, retries);
+            }
+        });
+    }
+
+    // retryBase * 2^(attempts - 1), capped at retryMax
+    private Duration backoff(int attempts) {
+        Duration delay = retryBase.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(retryMax) > 0 ? retryMax : delay;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) return null;
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    // ==================== Metrics ====================
+
+    private void countNotifications(Engine engine, String result, int amount) {
+        if (amount > 0) {
+            meterRegistry.counter("search.notifications", "engine", engineTag(engine), "result", result)
+                    .increment(amount);
+        }
+    }
+
+    private static String outcome(int failed, int total) {
+        if (failed == 0) return "success";
+        return failed == total ? "failure" : "partial";
+    }
+
+    private static String engineTag(Engine engine) {
+        return engine.name().toLowerCase();
+    }
+
+    // ==================== Stats ====================
+
+    public Map<String, Object> stats() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Engine engine : Engine.values()) {
+            Map<String, Object> engineStats = new LinkedHashMap<>();
+            engineStats.put("pending", repository.countByEngine(engine));
+            engineStats.put("due", repository.countByEngineAndNextAttemptAtLessThanEqual(engine, now));
+            engineStats.put("retrying", repository.countByEngineAndAttemptsGreaterThan(engine, 0));
+            stats.put(engine.name().toLowerCase(), engineStats);
+        }
+        return stats;
+    }
+
+    @FunctionalInterface
+    private interface Sender {
+        Map<SearchEngineNotification, String> send(List<SearchEngineNotification> batch);
+    }
+}
@@ -1,24 +1,41 @@
 package com.tree.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tree.dto.seo.SeoSettingsRequest;
 import com.tree.dto.seo.SeoSettingsResponse;
 import com.tree.entity.SeoSettings;
 import com.tree.repository.SeoSettingsRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class SeoSettingsService {
 
     private final SeoSettingsRepository seoSettingsRepository;
+    private final SettingsSnapshotCache<SeoSettingsResponse> snapshot;
 
+    public SeoSettingsService(SeoSettingsRepository seoSettingsRepository, ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.seoSettingsRepository = seoSettingsRepository;
+        this.snapshot = new SettingsSnapshotCache<>(
+                () -> SeoSettingsResponse.from(seoSettingsRepository.getSettings()), objectMapper, transactionManager);
+    }
+
+    /**
+     * Copy of the current settings; the snapshot itself is shared and must stay untouched
+     */
     public SeoSettingsResponse getSettings() {
-        SeoSettings settings = seoSettingsRepository.getSettings();
-        return SeoSettingsResponse.from(settings);
+        return snapshot.get().value().toBuilder().build();
+    }
+
+    /**
+     * Current settings with their ETag, for conditional GETs
+     */
+    public SettingsSnapshotCache.Snapshot<SeoSettingsResponse> getSnapshot() {
+        return snapshot.get();
     }
 
     @Transactional
@@ -63,6 +80,7 @@ public class SeoSettingsService {
         try {
             settings = seoSettingsRepository.save(settings);
             log.info("SEO settings saved successfully with id={}", settings.getId());
+            snapshot.refreshAfterCommit();
             return SeoSettingsResponse.from(settings);
         } catch (Exception e) {
             log.error("Error saving SEO settings", e);
@@ -0,0 +1,99 @@
+package com.tree.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tree.util.TransactionUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Holds a singleton settings row as a ready-to-serve snapshot with a strong ETag.
+ *
+ * The row is loaded and converted on first use; after a save commits, the
+ * snapshot is reloaded from the database and swapped in one write, so readers
+ * see either the old or the new settings, never a mix. Loads and swaps share
+ * a lock so a slow first load cannot overwrite a newer snapshot. Every load runs
+ * in its own read-only transaction: after commit the saving transaction's
+ * EntityManager is still bound, and reading through it would return its own
+ * cached row instead of the latest committed one.
+ */
+public final class SettingsSnapshotCache<T> {
+
+    private final Supplier<T> loader;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate loadTransaction;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Snapshot<T> snapshot;
+
+    public SettingsSnapshotCache(Supplier<T> loader, ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.loader = loader;
+        this.objectMapper = objectMapper;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+    }
+
+    public Snapshot<T> get() {
+        Snapshot<T> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = load();
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reload once the current transaction commits; reloading (rather than using the
+     * saved entity) keeps the last committed row even if two saves finish out of order
+     */
+    public void refreshAfterCommit() {
+        TransactionUtils.afterCommit(this::refresh);
+    }
+
+    private void refresh() {
+        lock.lock();
+        try {
+            snapshot = load();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Snapshot<T> load() {
+        T value = loadTransaction.execute(status -> loader.get());
+        return new Snapshot<>(value, eTag(value));
+    }
+
+    // Quoted hex of the first 128 bits of SHA-256 over the JSON the endpoint serves
+    private String eTag(T value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(value));
+            return "\"" + HexFormat.of().formatHex(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize settings snapshot", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Settings as served plus their ETag; the value is shared between requests and must not be modified
+     */
+    public record Snapshot<T>(T value, String eTag) {}
+}
@@ -6,28 +6,42 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tree.dto.SiteSettingsDTO;
 import com.tree.entity.SiteSettings;
 import com.tree.repository.SiteSettingsRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class SiteSettingsService {
 
     private final SiteSettingsRepository siteSettingsRepository;
     private final ObjectMapper objectMapper;
+    // Fetched on every page render: keep the parsed DTO instead of re-reading three JSON columns
+    private final SettingsSnapshotCache<SiteSettingsDTO> snapshot;
 
+    public SiteSettingsService(SiteSettingsRepository siteSettingsRepository, ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager) {
+        this.siteSettingsRepository = siteSettingsRepository;
+        this.objectMapper = objectMapper;
+        this.snapshot = new SettingsSnapshotCache<>(this::loadSettings, objectMapper, transactionManager);
+    }
+
+    /**
+     * Copy of the current settings; the snapshot itself is shared and must stay untouched
+     */
     public SiteSettingsDTO getSettings() {
-        SiteSettings settings = siteSettingsRepository.getSettings();
-        if (settings == null) {
-            return getDefaultSettings();
-        }
-        return toDTO(settings);
+        return snapshot.get().value().copy();
+    }
+
+    /**
+     * Current settings with their ETag, for conditional GETs
+     */
+    public SettingsSnapshotCache.Snapshot<SiteSettingsDTO> getSnapshot() {
+        return snapshot.get();
     }
 
     @Transactional
@@ -37,7 +51,17 @@ public class SiteSettingsService {
             settings = new SiteSettings();
         }
         updateFromDTO(settings, dto);
-        return toDTO(siteSettingsRepository.save(settings));
+        SiteSettingsDTO saved = toDTO(siteSettingsRepository.save(settings));
+        snapshot.refreshAfterCommit();
+        return saved;
+    }
+
+    private SiteSettingsDTO loadSettings() {
+        SiteSettings settings = siteSettingsRepository.getSettings();
+        if (settings == null) {
+            return getDefaultSettings();
+        }
+        return toDTO(settings);
     }
 
     private SiteSettingsDTO getDefaultSettings() {
@@ -0,0 +1,246 @@
+package com.tree.service;
+
+import com.tree.entity.Article;
+import com.tree.repository.ArticleRepository;
+import com.tree.repository.CategoryRepository;
+import com.tree.repository.projection.SitemapEntry;
+import com.tree.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-generated sitemap, split into shards of at most maxUrlsPerFile URLs.
+ *
+ * Rows are streamed through a slug/updatedAt projection and written straight
+ * into byte buffers (plain and gzip). The result is cached until an article or
+ * category write invalidates it; the next request regenerates it once.
+ */
+@Slf4j
+@Service
+public class SitemapService {
+
+    private static final DateTimeFormatter LASTMOD_FORMAT = DateTimeFormatter.ISO_DATE;
+
+    private final ArticleRepository articleRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final String siteUrl;
+    private final int maxUrlsPerFile;
+
+    private final ReentrantLock generateLock = new ReentrantLock();
+    private final AtomicLong version = new AtomicLong();
+    private volatile Sitemap sitemap;
+
+    public SitemapService(ArticleRepository articleRepository,
+                          CategoryRepository categoryRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.site-url:http://localhost:3000}") String siteUrl,
+                          @Value("${app.sitemap.max-urls-per-file:50000}") int maxUrlsPerFile) {
+        this.articleRepository = articleRepository;
+        this.categoryRepository = categoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.siteUrl = siteUrl;
+        this.maxUrlsPerFile = maxUrlsPerFile;
+    }
+
+    /**
+     * Current sitemap, generating it if missing or invalidated
+     */
+    public Sitemap get() {
+        Sitemap current = sitemap;
+        if (current != null && current.version() == version.get()) {
+            return current;
+        }
+
+        generateLock.lock();
+        try {
+            current = sitemap;
+            long target = version.get();
+            if (current == null || current.version() != target) {
+                current = generate(target);
+                sitemap = current;
+            }
+            return current;
+        } finally {
+            generateLock.unlock();
+        }
+    }
+
+    /**
+     * Mark the sitemap stale once the current transaction commits
+     */
+    public void invalidate() {
+        TransactionUtils.afterCommit(version::incrementAndGet);
+    }
+
+    private Sitemap generate(long targetVersion) {
+        long start = System.nanoTime();
+        ShardWriter writer = new ShardWriter();
+
+        writer.url(siteUrl + "/", null, "daily", "1.0");
+        writer.url(siteUrl + "/articles", null, "daily", "0.9");
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<SitemapEntry> articles = articleRepository.streamSitemapEntries(Article.Status.PUBLISHED)) {
+                articles.forEach(entry -> writer.url(
+                        siteUrl + "/article/" + escapeXml(entry.getSlug()), entry.getUpdatedAt(), "weekly", "0.8"));
+            }
+            for (SitemapEntry category : categoryRepository.findSitemapEntries()) {
+                writer.url(siteUrl + "/category/" + escapeXml(category.getSlug()), category.getUpdatedAt(), "weekly", "0.7");
+            }
+        });
+
+        List<Document> shards = writer.finish();
+        Document index = shards.size() > 1 ? sitemapIndex(shards.size()) : null;
+        Sitemap generated = new Sitemap(targetVersion, Instant.now(), index, shards);
+        log.info("Sitemap generated: {} URLs in {} file(s), {} ms",
+                writer.totalUrls, shards.size(), (System.nanoTime() - start) / 1_000_000);
+        return generated;
+    }
+
+    private Document sitemapIndex(int shardCount) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+        for (int i = 1; i <= shardCount; i++) {
+            xml.append("  <sitemap>\n");
+            xml.append("    <loc>").append(siteUrl).append("/sitemap-").append(i).append(".xml</loc>\n");
+            xml.append("  </sitemap>\n");
+        }
+        xml.append("</sitemapindex>");
+        return Document.of(xml.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String escapeXml(String value) {
+        if (value == null) return "";
+        return value
+                .replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;")
+                .replace("'", "&apos;");
+    }
+
+    /**
+     * Writes <url> entries, starting a new urlset file every maxUrlsPerFile URLs
+     */
+    private final class ShardWriter {
+        private final List<Document> shards = new ArrayList<>();
+        private ByteArrayOutputStream buffer;
+        private Writer out;
+        private int urlsInShard;
+        private long totalUrls;
+
+        void url(String loc, LocalDateTime lastModified, String changeFrequency, String priority) {
+            try {
+                if (out == null) {
+                    open();
+                }
+                out.write("  <url>\n    <loc>");
+                out.write(loc);
+                out.write("</loc>\n");
+                if (lastModified != null) {
+                    out.write("    <lastmod>");
+                    out.write(lastModified.toLocalDate().format(LASTMOD_FORMAT));
+                    out.write("</lastmod>\n");
+                }
+                out.write("    <changefreq>");
+                out.write(changeFrequency);
+                out.write("</changefreq>\n    <priority>");
+                out.write(priority);
+                out.write("</priority>\n  </url>\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            totalUrls++;
+            if (++urlsInShard >= maxUrlsPerFile) {
+                close();
+            }
+        }
+
+        List<Document> finish() {
+            if (out != null || shards.isEmpty()) {
+                close();
+            }
+            return shards;
+        }
+
+        private void open() throws IOException {
+            buffer = new ByteArrayOutputStream(64 * 1024);
+            out = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+            urlsInShard = 0;
+        }
+
+        private void close() {
+            try {
+                if (out == null) {
+                    open();
+                }
+                out.write("</urlset>");
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            shards.add(Document.of(buffer.toByteArray()));
+            out = null;
+            buffer = null;
+        }
+    }
+
+    /**
+     * One generated file with its gzip variant
+     */
+    public record Document(byte[] xml, byte[] gzip) {
+        static Document of(byte[] xml) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(512, xml.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(xml);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new Document(xml, compressed.toByteArray());
+        }
+    }
+
+    /**
+     * Generated sitemap: an index (only when there is more than one shard) and the urlset shards
+     */
+    public record Sitemap(long version, Instant generatedAt, Document index, List<Document> shards) {
+
+        /**
+         * Document served at /sitemap.xml: the index, or the only shard
+         */
+        public Document root() {
+            return index != null ? index : shards.get(0);
+        }
+
+        /**
+         * 1-based shard, or null when out of range
+         */
+        public Document shard(int number) {
+            return number >= 1 && number <= shards.size() ? shards.get(number - 1) : null;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.tree.service;
+
+import com.tree.config.AsyncConfig;
+import com.tree.dto.upload.UploadResult;
+import com.tree.exception.BadRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Multi-file uploads read straight from the request body.
+ *
+ * Parts are parsed as they arrive instead of being buffered by the servlet container
+ * first. Each file is streamed into a temp file next to its destination (type, size and
+ * digest checked on the way), then stored and measured on the upload pool while the next
+ * part is read. At most max-pending files per request sit on disk unfinished, so heap and
+ * temp disk usage do not grow with the batch. Every file gets its own result: a rejected
+ * file does not fail the others.
+ */
+@Slf4j
+@Service
+public class StreamingUploadService {
+
+    // Form fields carry no data here (the folder is in the path); a few are tolerated
+    private static final int MAX_FORM_FIELDS = 10;
+    private static final int MAX_PART_HEADER_SIZE = 1024;
+
+    private final FileStorageService fileStorageService;
+    private final ImageProcessingService imageProcessingService;
+    private final Executor uploadExecutor;
+    private final MeterRegistry meterRegistry;
+    private final int maxFiles;
+    private final int maxPending;
+
+    public StreamingUploadService(FileStorageService fileStorageService,
+                                  ImageProcessingService imageProcessingService,
+                                  @Qualifier(AsyncConfig.UPLOAD_EXECUTOR) Executor uploadExecutor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.upload.stream.max-files:100}") int maxFiles,
+                                  @Value("${app.upload.stream.max-pending:4}") int maxPending) {
+        this.fileStorageService = fileStorageService;
+        this.imageProcessingService = imageProcessingService;
+        this.uploadExecutor = uploadExecutor;
+        this.meterRegistry = meterRegistry;
+        this.maxFiles = maxFiles;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Store every file part of a multipart/form-data request in a folder, in request order.
+     * If the body breaks off (client gone, malformed part) the files already handed to the
+     * pool still finish, and the results so far are returned with a failed entry for the
+     * part that was being read.
+     */
+    public List<UploadResult> storeAll(HttpServletRequest request, String folder) {
+        if (!JakartaServletFileUpload.isMultipartContent(request)) {
+            throw new BadRequestException("Expected a multipart/form-data request");
+        }
+        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = new JakartaServletFileUpload<>();
+        // File size is enforced per file while staging (app.upload.max-size); the parser caps
+        // the part count (one spare so maxFiles is reported per file) and each part's headers
+        upload.setFileCountMax(maxFiles + MAX_FORM_FIELDS + 1L);
+        upload.setPartHeaderSizeMax(MAX_PART_HEADER_SIZE);
+        Semaphore pending = new Semaphore(maxPending);
+        List<CompletableFuture<UploadResult>> results = new ArrayList<>();
+        String current = null;
+
+        try {
+            FileItemInputIterator parts = upload.getItemIterator(request);
+            int files = 0;
+            int fields = 0;
+            while (parts.hasNext()) {
+                FileItemInput part = parts.next();
+                current = part.isFormField() ? null : part.getName();
+                if (part.isFormField()) {
+                    if (++fields > MAX_FORM_FIELDS) {
+                        results.add(CompletableFuture.completedFuture(
+                                rejected(null, "Too many form fields: at most " + MAX_FORM_FIELDS + " per request")));
+                        break;
+                    }
+                    continue;
+                }
+                String filename = current;
+                if (++files > maxFiles) {
+                    // Stop reading: the rest of the body is never parsed
+                    results.add(CompletableFuture.completedFuture(
+                            rejected(filename, "Too many files: at most " + maxFiles + " per request")));
+                    break;
+                }
+
+                pending.acquire();
+                FileStorageService.StagedUpload staged;
+                try (InputStream inputStream = part.getInputStream()) {
+                    staged = fileStorageService.stage(inputStream, folder, filename, part.getContentType());
+                } catch (BadRequestException e) {
+                    pending.release();
+                    current = null;
+                    results.add(CompletableFuture.completedFuture(rejected(filename, e.getMessage())));
+                    continue;
+                } catch (IOException | RuntimeException e) {
+                    pending.release();
+                    throw e;
+                }
+
+                current = null;
+                results.add(CompletableFuture.supplyAsync(() -> finish(filename, staged), uploadExecutor)
+                        .whenComplete((result, e) -> pending.release()));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Multipart upload for {} broke off after {} parts: {}", folder, results.size(), e.getMessage());
+            results.add(CompletableFuture.completedFuture(rejected(current, "Could not read upload: " + e.getMessage())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            results.add(CompletableFuture.completedFuture(rejected(current, "Upload interrupted")));
+        }
+
+        // Files already on the pool are committed either way, so their outcome is reported
+        return results.stream().map(CompletableFuture::join).toList();
+    }
+
+    // Runs on the upload pool: rename into place, then read dimensions and queue variants
+    private UploadResult finish(String filename, FileStorageService.StagedUpload staged) {
+        try {
+            String url = fileStorageService.commit(staged);
+            count("stored");
+            return UploadResult.stored(filename, imageProcessingService.process(url));
+        } catch (BadRequestException e) {
+            return rejected(filename, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Could not store upload {}", filename, e);
+            return rejected(filename, "Could not store file");
+        }
+    }
+
+    private UploadResult rejected(String filename, String error) {
+        count("rejected");
+        return UploadResult.failed(filename, error);
+    }
+
+    private void count(String outcome) {
+        Counter.builder("uploads.stream.files")
+                .description("Files received through streamed multi-file uploads")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
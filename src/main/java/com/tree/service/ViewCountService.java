@@ -0,0 +1,148 @@
+package com.tree.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind view counter for articles and products.
+ *
+ * Page views are counted in memory (one LongAdder per entity) and flushed
+ * periodically as batched relative updates, so public slug reads never take
+ * a row lock on articles/products.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ViewCountService {
+
+    private static final String ARTICLE_UPDATE_SQL =
+            "UPDATE articles SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?";
+    private static final String PRODUCT_UPDATE_SQL =
+            "UPDATE products SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // One entry per viewed entity, bounded by catalogue size
+    private final Map<UUID, ViewCounter> articleViews = new ConcurrentHashMap<>();
+    private final Map<UUID, ViewCounter> productViews = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public void recordArticleView(UUID articleId) {
+        articleViews.computeIfAbsent(articleId, id -> new ViewCounter()).recorded.increment();
+    }
+
+    public void recordProductView(UUID productId) {
+        productViews.computeIfAbsent(productId, id -> new ViewCounter()).recorded.increment();
+    }
+
+    /**
+     * Persisted view count plus views not yet flushed to the database
+     */
+    public long articleViews(UUID articleId, Long persisted) {
+        return valueOf(persisted) + pending(articleViews.get(articleId));
+    }
+
+    /**
+     * Number of article views already flushed; pair with a persisted count read at the same time
+     */
+    public long articleFlushMark(UUID articleId) {
+        ViewCounter counter = articleViews.get(articleId);
+        return counter != null ? counter.flushed : 0;
+    }
+
+    /**
+     * View count for a persisted value captured at flushMark (e.g. a cached response)
+     */
+    public long articleViews(UUID articleId, Long persisted, long flushMark) {
+        ViewCounter counter = articleViews.get(articleId);
+        long recorded = counter != null ? counter.recorded.sum() : 0;
+        return valueOf(persisted) + recorded - flushMark;
+    }
+
+    /**
+     * Persisted view count plus views not yet flushed to the database
+     */
+    public long productViews(UUID productId, Long persisted) {
+        return valueOf(persisted) + pending(productViews.get(productId));
+    }
+
+    /**
+     * Write accumulated deltas to the database in one batch per table
+     */
+    @Scheduled(fixedDelayString = "${app.view-count.flush-interval-ms:10000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flush(articleViews, ARTICLE_UPDATE_SQL, "article");
+            flush(productViews, PRODUCT_UPDATE_SQL, "product");
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing buffered view counts before shutdown");
+        flush();
+    }
+
+    private void flush(Map<UUID, ViewCounter> counters, String sql, String type) {
+        List<Object[]> batchArgs = new ArrayList<>();
+        List<ViewCounter> flushed = new ArrayList<>();
+        List<Long> marks = new ArrayList<>();
+
+        for (Map.Entry<UUID, ViewCounter> entry : counters.entrySet()) {
+            ViewCounter counter = entry.getValue();
+            long recorded = counter.recorded.sum();
+            long delta = recorded - counter.flushed;
+            if (delta > 0) {
+                batchArgs.add(new Object[]{delta, entry.getKey()});
+                flushed.add(counter);
+                marks.add(recorded);
+            }
+        }
+
+        if (batchArgs.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(sql, batchArgs);
+            // Only advance the marks once the batch is written; on failure the deltas are retried next run
+            for (int i = 0; i < flushed.size(); i++) {
+                flushed.get(i).flushed = marks.get(i);
+            }
+            log.debug("Flushed view counts for {} {}(s)", batchArgs.size(), type);
+        } catch (DataAccessException e) {
+            log.warn("Failed to flush {} view counts, will retry: {}", type, e.getMessage());
+        }
+    }
+
+    private static long pending(ViewCounter counter) {
+        return counter != null ? counter.recorded.sum() - counter.flushed : 0;
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static final class ViewCounter {
+        // Monotonic total since startup; the flushed mark is only advanced under flushLock
+        private final LongAdder recorded = new LongAdder();
+        private volatile long flushed;
+    }
+}
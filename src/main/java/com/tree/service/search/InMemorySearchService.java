@@ -0,0 +1,237 @@
+package com.tree.service.search;
+
+import com.tree.config.AsyncConfig;
+import com.tree.entity.Article;
+import com.tree.entity.Article.Status;
+import com.tree.entity.BaseEntity;
+import com.tree.entity.Product;
+import com.tree.repository.ArticleRepository;
+import com.tree.repository.ProductRepository;
+import com.tree.service.search.InvertedIndex.Document;
+import com.tree.service.search.InvertedIndex.Field;
+import com.tree.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Optional embedded search engine (app.search.engine=memory).
+ *
+ * Keeps one InvertedIndex for published articles and one for active products.
+ * Both are rebuilt in parallel at startup and updated incrementally after each
+ * committed write in ArticleService/ProductService. Only ids are held in memory;
+ * matching entities are loaded by primary key.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InMemorySearchService {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SUMMARY_WEIGHT = 2;
+    private static final int BODY_WEIGHT = 1;
+
+    private final ArticleRepository articleRepository;
+    private final ProductRepository productRepository;
+    @Qualifier(AsyncConfig.INDEXING_EXECUTOR)
+    private final Executor indexingExecutor;
+
+    @Value("${app.search.engine:database}")
+    private String engine;
+
+    private volatile InvertedIndex articleIndex = new InvertedIndex();
+    private volatile InvertedIndex productIndex = new InvertedIndex();
+
+    // Updates committed while a rebuild is running are replayed onto the new indexes
+    private volatile boolean rebuilding;
+    private final Queue<IndexUpdate> pendingUpdates = new ConcurrentLinkedQueue<>();
+
+    public boolean isEnabled() {
+        return "memory".equalsIgnoreCase(engine);
+    }
+
+    public boolean supports(String keyword) {
+        return isEnabled() && keyword != null && !keyword.isBlank();
+    }
+
+    // ==================== Queries ====================
+
+    public Page<Article> searchArticles(String keyword, Pageable pageable) {
+        InvertedIndex.Hits hits = articleIndex.search(keyword, (int) pageable.getOffset(), pageable.getPageSize());
+        List<Article> articles = inHitOrder(articleRepository.findAllById(hits.keys()), hits.keys(),
+                article -> isSearchable(article));
+        return new PageImpl<>(articles, pageable, hits.total());
+    }
+
+    public Page<Product> searchProducts(String keyword, Pageable pageable) {
+        InvertedIndex.Hits hits = productIndex.search(keyword, (int) pageable.getOffset(), pageable.getPageSize());
+        List<Product> products = inHitOrder(productRepository.findAllById(hits.keys()), hits.keys(),
+                product -> isSearchable(product));
+        return new PageImpl<>(products, pageable, hits.total());
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("engine", isEnabled() ? "memory" : "database");
+        stats.put("rebuilding", rebuilding);
+        stats.put("articles", articleIndex.size());
+        stats.put("articleTerms", articleIndex.termCount());
+        stats.put("products", productIndex.size());
+        stats.put("productTerms", productIndex.termCount());
+        return stats;
+    }
+
+    // ==================== Index maintenance ====================
+
+    /**
+     * Rebuild both indexes from the database in parallel, then swap them in
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        pendingUpdates.clear();
+        rebuilding = true;
+        try {
+            CompletableFuture<InvertedIndex> articles = CompletableFuture.supplyAsync(() -> buildIndex(
+                    articleRepository.findByStatusAndDeletedFalseOrderByCreatedAtDesc(Status.PUBLISHED),
+                    InMemorySearchService::toDocument), indexingExecutor);
+            CompletableFuture<InvertedIndex> products = CompletableFuture.supplyAsync(() -> buildIndex(
+                    productRepository.findByIsActiveTrueAndDeletedFalse(Pageable.unpaged()).getContent(),
+                    InMemorySearchService::toDocument), indexingExecutor);
+
+            articleIndex = articles.join();
+            productIndex = products.join();
+        } finally {
+            rebuilding = false;
+        }
+
+        IndexUpdate update;
+        while ((update = pendingUpdates.poll()) != null) {
+            apply(update);
+        }
+        log.info("Search index rebuilt: {} articles, {} products in {} ms",
+                articleIndex.size(), productIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Re-index an article after the current transaction commits (removes it if no longer published)
+     */
+    public void articleChanged(Article article) {
+        if (isEnabled()) {
+            submit(new IndexUpdate(true, article.getId(), isSearchable(article) ? toDocument(article) : null));
+        }
+    }
+
+    public void articleRemoved(UUID articleId) {
+        if (isEnabled()) {
+            submit(new IndexUpdate(true, articleId, null));
+        }
+    }
+
+    /**
+     * Re-index a product after the current transaction commits (removes it if inactive or deleted)
+     */
+    public void productChanged(Product product) {
+        if (isEnabled()) {
+            submit(new IndexUpdate(false, product.getId(), isSearchable(product) ? toDocument(product) : null));
+        }
+    }
+
+    public void productRemoved(UUID productId) {
+        if (isEnabled()) {
+            submit(new IndexUpdate(false, productId, null));
+        }
+    }
+
+    private void submit(IndexUpdate update) {
+        TransactionUtils.afterCommit(() -> {
+            if (rebuilding) {
+                pendingUpdates.add(update);
+            }
+            apply(update);
+        });
+    }
+
+    private void apply(IndexUpdate update) {
+        InvertedIndex index = update.article() ? articleIndex : productIndex;
+        if (update.document() != null) {
+            index.put(update.document());
+        } else {
+            index.remove(update.key());
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    // Tokenizing dominates the build, so documents are prepared in parallel
+    private static <T> InvertedIndex buildIndex(List<T> entities, Function<T, Document> toDocument) {
+        InvertedIndex index = new InvertedIndex();
+        entities.parallelStream()
+                .map(toDocument)
+                .toList()
+                .forEach(index::put);
+        return index;
+    }
+
+    private static Document toDocument(Article article) {
+        return Document.of(article.getId(),
+                new Field(article.getTitle(), TITLE_WEIGHT),
+                new Field(article.getSummary(), SUMMARY_WEIGHT),
+                new Field(article.getContent(), BODY_WEIGHT));
+    }
+
+    private static Document toDocument(Product product) {
+        return Document.of(product.getId(),
+                new Field(product.getName(), TITLE_WEIGHT),
+                new Field(product.getSummary(), SUMMARY_WEIGHT),
+                new Field(product.getDescription(), BODY_WEIGHT));
+    }
+
+    private static boolean isSearchable(Article article) {
+        return article.getStatus() == Status.PUBLISHED && !Boolean.TRUE.equals(article.getDeleted());
+    }
+
+    private static boolean isSearchable(Product product) {
+        return Boolean.TRUE.equals(product.getIsActive()) && !Boolean.TRUE.equals(product.getDeleted());
+    }
+
+    // findAllById does not keep order; also drops rows changed since they were indexed
+    private static <T extends BaseEntity> List<T> inHitOrder(List<T> entities, List<UUID> order, Predicate<T> filter) {
+        Map<UUID, T> byId = new LinkedHashMap<>();
+        for (T entity : entities) {
+            byId.put(entity.getId(), entity);
+        }
+        List<T> result = new ArrayList<>(order.size());
+        for (UUID id : order) {
+            T entity = byId.get(id);
+            if (entity != null && filter.test(entity)) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    private record IndexUpdate(boolean article, UUID key, Document document) {}
+}
@@ -0,0 +1,432 @@
+package com.tree.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compact in-memory inverted index ranked with BM25.
+ *
+ * Documents get dense int ids in insertion order, so every posting list is an
+ * append-only, sorted pair of int arrays (doc ids, weighted term frequencies).
+ * Re-indexing a document tombstones its old id and appends a new one; tombstones
+ * are compacted away once they exceed a quarter of all ids.
+ *
+ * Queries match all terms (AND) and share a read lock; writes take the write lock.
+ */
+public class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final double COMPACT_RATIO = 0.25;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<Postings> postings = new ArrayList<>();
+
+    private final Map<UUID, Integer> docIdsByKey = new HashMap<>();
+    private UUID[] keys = new UUID[INITIAL_CAPACITY];
+    private int[] docLengths = new int[INITIAL_CAPACITY];
+    private int[][] docTerms = new int[INITIAL_CAPACITY][];
+    private final BitSet tombstones = new BitSet();
+
+    private int docCount;      // assigned ids, live and tombstoned
+    private int liveCount;
+    private long totalLength;  // weighted length of live documents
+
+    /**
+     * Add or replace a document
+     */
+    public void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(document.key);
+
+            int docId = docCount++;
+            ensureCapacity(docCount);
+            keys[docId] = document.key;
+            docLengths[docId] = document.length;
+
+            int[] ids = new int[document.terms.length];
+            for (int i = 0; i < document.terms.length; i++) {
+                int termId = termIds.computeIfAbsent(document.terms[i], term -> {
+                    postings.add(new Postings());
+                    return postings.size() - 1;
+                });
+                postings.get(termId).add(docId, document.frequencies[i]);
+                ids[i] = termId;
+            }
+            docTerms[docId] = ids;
+
+            docIdsByKey.put(document.key, docId);
+            liveCount++;
+            totalLength += document.length;
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID key) {
+        lock.writeLock().lock();
+        try {
+            if (removeInternal(key)) {
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return termIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents containing every query term, best BM25 score first; total counts all matches
+     */
+    public Hits search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return Hits.EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[terms.size()];
+            for (int i = 0; i < lists.length; i++) {
+                Integer termId = termIds.get(terms.get(i));
+                if (termId == null || postings.get(termId).live == 0) {
+                    return Hits.EMPTY;
+                }
+                lists[i] = postings.get(termId);
+            }
+            // Drive the intersection from the rarest term
+            Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+
+            float[] idf = new float[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                int df = lists[i].live;
+                idf[i] = (float) Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+            }
+            float avgLength = liveCount > 0 ? (float) totalLength / liveCount : 1f;
+
+            TopK top = new TopK(offset + limit);
+            int total = 0;
+            int[] cursors = new int[lists.length];
+            Postings rarest = lists[0];
+
+            outer:
+            for (int i = 0; i < rarest.size; i++) {
+                int doc = rarest.docs[i];
+                if (tombstones.get(doc)) {
+                    continue;
+                }
+                float lengthNorm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                float score = bm25(rarest.frequencies[i], idf[0], lengthNorm);
+
+                for (int j = 1; j < lists.length; j++) {
+                    Postings list = lists[j];
+                    int position = list.advance(cursors[j], doc);
+                    cursors[j] = position;
+                    if (position >= list.size) {
+                        break outer;
+                    }
+                    if (list.docs[position] != doc) {
+                        continue outer;
+                    }
+                    score += bm25(list.frequencies[position], idf[j], lengthNorm);
+                }
+
+                total++;
+                top.offer(doc, score);
+            }
+
+            int[] ranked = top.sortedDocs();
+            List<UUID> result = new ArrayList<>(Math.max(0, ranked.length - offset));
+            for (int i = offset; i < ranked.length; i++) {
+                result.add(keys[ranked[i]]);
+            }
+            return new Hits(result, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static float bm25(int frequency, float idf, float lengthNorm) {
+        return idf * frequency * (K1 + 1) / (frequency + lengthNorm);
+    }
+
+    private boolean removeInternal(UUID key) {
+        Integer docId = docIdsByKey.remove(key);
+        if (docId == null) {
+            return false;
+        }
+        tombstones.set(docId);
+        for (int termId : docTerms[docId]) {
+            postings.get(termId).live--;
+        }
+        docTerms[docId] = null;
+        liveCount--;
+        totalLength -= docLengths[docId];
+        return true;
+    }
+
+    private void compactIfNeeded() {
+        int dead = docCount - liveCount;
+        if (dead < INITIAL_CAPACITY || dead < docCount * COMPACT_RATIO) {
+            return;
+        }
+
+        // Renumber live documents densely, preserving order so posting lists stay sorted
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int old = 0; old < docCount; old++) {
+            if (tombstones.get(old)) {
+                remap[old] = -1;
+                continue;
+            }
+            remap[old] = next;
+            keys[next] = keys[old];
+            docLengths[next] = docLengths[old];
+            docTerms[next] = docTerms[old];
+            next++;
+        }
+        Arrays.fill(keys, next, docCount, null);
+        Arrays.fill(docTerms, next, docCount, null);
+
+        for (Postings list : postings) {
+            list.compact(remap);
+        }
+        docIdsByKey.replaceAll((key, old) -> remap[old]);
+        tombstones.clear();
+        docCount = next;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= keys.length) {
+            return;
+        }
+        int newLength = Math.max(capacity, keys.length * 2);
+        keys = Arrays.copyOf(keys, newLength);
+        docLengths = Arrays.copyOf(docLengths, newLength);
+        docTerms = Arrays.copyOf(docTerms, newLength);
+    }
+
+    /**
+     * Weighted text field of a document
+     */
+    public record Field(String text, int weight) {}
+
+    /**
+     * Result page of document keys plus the total number of matches
+     */
+    public record Hits(List<UUID> keys, int total) {
+        static final Hits EMPTY = new Hits(Collections.emptyList(), 0);
+    }
+
+    /**
+     * Tokenized document, built outside the index lock
+     */
+    public static final class Document {
+        private final UUID key;
+        private final String[] terms;
+        private final int[] frequencies;
+        private final int length;
+
+        private Document(UUID key, String[] terms, int[] frequencies, int length) {
+            this.key = key;
+            this.terms = terms;
+            this.frequencies = frequencies;
+            this.length = length;
+        }
+
+        public static Document of(UUID key, Field... fields) {
+            Map<String, Integer> weighted = new HashMap<>();
+            int length = 0;
+            for (Field field : fields) {
+                for (String term : Tokenizer.tokenize(field.text())) {
+                    weighted.merge(term, field.weight(), Integer::sum);
+                    length += field.weight();
+                }
+            }
+
+            String[] terms = new String[weighted.size()];
+            int[] frequencies = new int[weighted.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : weighted.entrySet()) {
+                terms[i] = entry.getKey();
+                frequencies[i] = entry.getValue();
+                i++;
+            }
+            return new Document(key, terms, frequencies, length);
+        }
+
+        public UUID key() {
+            return key;
+        }
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+        private int live;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+
+        // First position >= from whose doc id is >= target (galloping, then binary search)
+        int advance(int from, int target) {
+            if (from >= size || docs[from] >= target) {
+                return from;
+            }
+            int step = 1;
+            int low = from;
+            int high = from + step;
+            while (high < size && docs[high] < target) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            high = Math.min(high, size - 1);
+            if (docs[high] < target) {
+                return size;
+            }
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (docs[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void compact(int[] remap) {
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[n] = doc;
+                    frequencies[n] = frequencies[i];
+                    n++;
+                }
+            }
+            size = n;
+            live = n;
+        }
+    }
+
+    // Bounded min-heap of (doc, score) keeping the k best scores
+    private static final class TopK {
+        private final int capacity;
+        private int[] docs;
+        private float[] scores;
+        private int size;
+
+        TopK(int capacity) {
+            this.capacity = capacity;
+            this.docs = new int[Math.min(capacity, 1024)];
+            this.scores = new float[docs.length];
+        }
+
+        void offer(int doc, float score) {
+            if (size < capacity) {
+                if (size == docs.length) {
+                    int newLength = (int) Math.min(capacity, docs.length * 2L);
+                    docs = Arrays.copyOf(docs, newLength);
+                    scores = Arrays.copyOf(scores, newLength);
+                }
+                docs[size] = doc;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (score > scores[0]) {
+                docs[0] = doc;
+                scores[0] = score;
+                siftDown(0, size);
+            }
+        }
+
+        // Drains the heap; best score first
+        int[] sortedDocs() {
+            int[] result = new int[size];
+            for (int last = size - 1; last >= 0; last--) {
+                result[last] = docs[0];
+                swap(0, last);
+                siftDown(0, last);
+            }
+            size = 0;
+            return result;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (scores[parent] <= scores[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i, int n) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= n) {
+                    return;
+                }
+                int smallest = left + 1 < n && scores[left + 1] < scores[left] ? left + 1 : left;
+                if (scores[i] <= scores[smallest]) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int doc = docs[a];
+            docs[a] = docs[b];
+            docs[b] = doc;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
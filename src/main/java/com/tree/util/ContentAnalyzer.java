@@ -0,0 +1,429 @@
+package com.tree.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Single-pass analysis of article markdown: word and sentence counts, reading
+ * time, focus keyword density, SEO checks and a Vietnamese readability score.
+ *
+ * The markdown is scanned once, character by character, without regex splitting
+ * or per-word strings. Fenced code, link/image destinations and HTML tags are
+ * skipped; headings, list items and blank lines end a sentence.
+ *
+ * Readability uses Nguyen & Henkin (1982), RL = 2 * WL + 0.2 * SL - 6, where WL is
+ * the average letters per word and SL the average words per sentence. Vietnamese
+ * words are single syllables, so no syllable counting is needed. RL (roughly a
+ * school grade) is mapped to 0-100: 2 or lower scores 100, 12 or higher scores 0,
+ * so 20-word sentences land near 75 and 40-word ones near 35.
+ */
+public final class ContentAnalyzer {
+
+    public static final int WORDS_PER_MINUTE = 200;
+
+    // Keyword in the opening words counts as "in the introduction"
+    private static final int INTRO_WORDS = 100;
+    private static final double MIN_DENSITY = 0.5;
+    private static final double MAX_DENSITY = 2.5;
+    private static final int MIN_WORDS = 300;
+
+    private static final double EASIEST_LEVEL = 2;
+    private static final double HARDEST_LEVEL = 12;
+
+    private ContentAnalyzer() {}
+
+    /**
+     * Article fields the analysis reads; any of them may be null
+     */
+    public record Input(String content, String title, String slug, String focusKeyword,
+                        String metaTitle, String metaDescription) {}
+
+    /**
+     * Counts, keyword density (percent of words) and 0-100 scores
+     */
+    public record Analysis(int wordCount, int sentenceCount, int readingTime, int keywordCount,
+                           double keywordDensity, double readabilityLevel, int readabilityScore,
+                           int seoScore, List<String> seoIssues) {}
+
+    public static Analysis analyze(Input input) {
+        String content = input.content() != null ? input.content() : "";
+        // Keyword matching compares precomposed characters
+        if (!Normalizer.isNormalized(content, Normalizer.Form.NFC)) {
+            content = Normalizer.normalize(content, Normalizer.Form.NFC);
+        }
+        char[][] keyword = keywordWords(input.focusKeyword());
+
+        Scanner scanner = new Scanner(content, keyword);
+        scanner.scan();
+
+        int words = scanner.words;
+        int sentences = scanner.sentences;
+        double density = words > 0 && keyword.length > 0
+                ? 100.0 * scanner.keywordCount * keyword.length / words
+                : 0;
+        double level = readabilityLevel(scanner.letters, words, sentences);
+        int readabilityScore = words == 0 ? 0 : (int) Math.round(
+                Math.clamp((HARDEST_LEVEL - level) / (HARDEST_LEVEL - EASIEST_LEVEL), 0.0, 1.0) * 100);
+
+        List<String> issues = new ArrayList<>();
+        int seoScore = seoScore(input, keyword, scanner, density, issues);
+
+        return new Analysis(words, sentences, Math.max(1, words / WORDS_PER_MINUTE), scanner.keywordCount,
+                density, level, readabilityScore, seoScore, List.copyOf(issues));
+    }
+
+    private static double readabilityLevel(long letters, int words, int sentences) {
+        if (words == 0) {
+            return 0;
+        }
+        double wordLength = (double) letters / words;
+        double sentenceLength = (double) words / Math.max(1, sentences);
+        return 2 * wordLength + 0.2 * sentenceLength - 6;
+    }
+
+    // Each check adds its weight; weights sum to 100
+    private static int seoScore(Input input, char[][] keyword, Scanner scanner, double density, List<String> issues) {
+        int score = 0;
+        boolean hasKeyword = keyword.length > 0;
+        String phrase = hasKeyword ? input.focusKeyword().trim().toLowerCase(Locale.ROOT) : null;
+
+        score += check(hasKeyword, 5, "Focus keyword is not set", issues);
+        score += check(hasKeyword && contains(input.title(), phrase), 10, "Focus keyword is not in the title", issues);
+        score += check(hasKeyword && contains(input.metaDescription(), phrase), 10,
+                "Focus keyword is not in the meta description", issues);
+        score += check(hasKeyword && input.slug() != null && input.slug().contains(SlugUtil.toSlug(phrase)), 10,
+                "Focus keyword is not in the slug", issues);
+        score += check(hasKeyword && scanner.keywordInIntro, 10,
+                "Focus keyword is not in the first " + INTRO_WORDS + " words", issues);
+        score += check(hasKeyword && scanner.keywordInSubheading, 5, "Focus keyword is not in a subheading", issues);
+
+        if (density >= MIN_DENSITY && density <= MAX_DENSITY) {
+            score += 15;
+        } else if (density > 0) {
+            score += 7;
+            issues.add(String.format(Locale.ROOT, "Keyword density %.1f%% is outside %.1f-%.1f%%",
+                    density, MIN_DENSITY, MAX_DENSITY));
+        } else if (hasKeyword) {
+            issues.add("Focus keyword does not appear in the content");
+        }
+
+        String title = input.metaTitle() != null && !input.metaTitle().isBlank() ? input.metaTitle() : input.title();
+        score += lengthCheck(title, 50, 60, 30, 70, "Meta title", issues);
+        score += lengthCheck(input.metaDescription(), 150, 160, 100, 170, "Meta description", issues);
+        score += check(scanner.words >= MIN_WORDS, 10, "Content has fewer than " + MIN_WORDS + " words", issues);
+        score += check(scanner.subheadings > 0, 5, "Content has no subheadings", issues);
+        return score;
+    }
+
+    private static int check(boolean passed, int weight, String issue, List<String> issues) {
+        if (passed) {
+            return weight;
+        }
+        issues.add(issue);
+        return 0;
+    }
+
+    // Full weight inside the ideal range, half inside the acceptable one
+    private static int lengthCheck(String value, int idealMin, int idealMax, int okMin, int okMax,
+                                   String field, List<String> issues) {
+        int length = value != null ? value.trim().length() : 0;
+        if (length >= idealMin && length <= idealMax) {
+            return 10;
+        }
+        issues.add(field + " length " + length + " is outside " + idealMin + "-" + idealMax + " characters");
+        return length >= okMin && length <= okMax ? 5 : 0;
+    }
+
+    private static boolean contains(String text, String phrase) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(phrase);
+    }
+
+    // Focus keyword as lower-case words, tokenized the same way as the content
+    private static char[][] keywordWords(String focusKeyword) {
+        if (focusKeyword == null || focusKeyword.isBlank()) {
+            return new char[0][];
+        }
+        String normalized = Normalizer.normalize(focusKeyword, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        List<char[]> words = new ArrayList<>();
+        int i = 0;
+        while (i < normalized.length()) {
+            if (isWordChar(normalized.charAt(i))) {
+                int start = i;
+                while (i < normalized.length() && isWordChar(normalized.charAt(i))) {
+                    i++;
+                }
+                words.add(normalized.substring(start, i).toCharArray());
+            } else {
+                i++;
+            }
+        }
+        return words.toArray(char[][]::new);
+    }
+
+    private static boolean isWordChar(char c) {
+        if (c < 128) {
+            // ASCII fast path: spaces and markdown punctuation are the common case
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+        }
+        return Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK;
+    }
+
+    /**
+     * Markdown scanner state; one instance per analysis
+     */
+    private static final class Scanner {
+        private final String text;
+        private final int length;
+        private final char[][] keyword;
+
+        // Partial keyword matches: number of keyword words matched so far
+        private int[] partial;
+        private int[] nextPartial;
+        private int partialCount;
+
+        int words;
+        long letters;
+        int sentences;
+        int keywordCount;
+        int subheadings;
+        boolean keywordInIntro;
+        boolean keywordInSubheading;
+
+        private int wordsInSentence;
+        private int headingLevel;
+
+        Scanner(String text, char[][] keyword) {
+            this.text = text;
+            this.length = text.length();
+            this.keyword = keyword;
+            this.partial = new int[Math.max(1, keyword.length)];
+            this.nextPartial = new int[Math.max(1, keyword.length)];
+        }
+
+        void scan() {
+            int i = 0;
+            boolean inFence = false;
+            while (i < length) {
+                // ---- line start: fences, headings, list items ----
+                int lineStart = skipSpaces(i);
+                if (startsFence(lineStart)) {
+                    inFence = !inFence;
+                    endSentence();
+                    i = nextLine(lineStart);
+                    continue;
+                }
+                if (inFence) {
+                    i = nextLine(lineStart);
+                    continue;
+                }
+                int lineEnd = lineEnd(lineStart);
+                if (lineStart == lineEnd) {
+                    // Blank line ends the paragraph
+                    endSentence();
+                    i = lineEnd + 1;
+                    continue;
+                }
+
+                // A quoted line is a block of its own and may hold a heading or list item
+                int contentStart = quoteContentStart(lineStart, lineEnd);
+                boolean block = contentStart > lineStart;
+                if (block) {
+                    endSentence();
+                }
+                headingLevel = headingLevel(contentStart);
+                if (headingLevel > 0) {
+                    endSentence();
+                    contentStart += headingLevel;
+                    block = true;
+                    if (headingLevel >= 2) {
+                        subheadings++;
+                    }
+                } else if (contentStart < lineEnd) {
+                    int marker = listMarkerEnd(contentStart);
+                    if (marker > contentStart) {
+                        endSentence();
+                        contentStart = marker;
+                        block = true;
+                    }
+                }
+
+                scanInline(contentStart, lineEnd);
+                if (block) {
+                    endSentence();
+                }
+                headingLevel = 0;
+                i = lineEnd + 1;
+            }
+            endSentence();
+        }
+
+        private void scanInline(int from, int to) {
+            int i = from;
+            while (i < to) {
+                char c = text.charAt(i);
+                if (isWordChar(c)) {
+                    int start = i;
+                    while (i < to && isWordChar(c = text.charAt(i))) {
+                        if (c > '9' || c < '0') {
+                            letters++;
+                        }
+                        i++;
+                    }
+                    word(start, i);
+                } else if (c == ']' && i + 1 < to && text.charAt(i + 1) == '(') {
+                    // Link or image destination
+                    i = skipPast(i + 2, to, ')');
+                } else if (c == '<' && i + 1 < to && (Character.isLetter(text.charAt(i + 1)) || text.charAt(i + 1) == '/')) {
+                    // Inline HTML tag
+                    i = skipPast(i + 1, to, '>');
+                } else {
+                    if ((c == '.' || c == '!' || c == '?' || c == '…')
+                            && (i + 1 == to || Character.isWhitespace(text.charAt(i + 1)))) {
+                        endSentence();
+                    }
+                    i++;
+                }
+            }
+        }
+
+        private void word(int start, int end) {
+            words++;
+            wordsInSentence++;
+            if (keyword.length > 0) {
+                matchKeyword(start, end);
+            }
+        }
+
+        // Advances every partial match by this word and starts a new one if it matches the first keyword word
+        private void matchKeyword(int start, int end) {
+            int next = 0;
+            for (int p = 0; p < partialCount; p++) {
+                int matched = partial[p];
+                if (equalsIgnoreCase(start, end, keyword[matched])) {
+                    if (matched + 1 == keyword.length) {
+                        keywordFound();
+                    } else {
+                        nextPartial[next++] = matched + 1;
+                    }
+                }
+            }
+            if (equalsIgnoreCase(start, end, keyword[0])) {
+                if (keyword.length == 1) {
+                    keywordFound();
+                } else if (next < nextPartial.length) {
+                    nextPartial[next++] = 1;
+                }
+            }
+            int[] swap = partial;
+            partial = nextPartial;
+            nextPartial = swap;
+            partialCount = next;
+        }
+
+        private void keywordFound() {
+            keywordCount++;
+            if (words <= INTRO_WORDS) {
+                keywordInIntro = true;
+            }
+            if (headingLevel >= 2) {
+                keywordInSubheading = true;
+            }
+        }
+
+        private boolean equalsIgnoreCase(int start, int end, char[] word) {
+            if (end - start != word.length) {
+                return false;
+            }
+            for (int k = 0; k < word.length; k++) {
+                if (Character.toLowerCase(text.charAt(start + k)) != word[k]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void endSentence() {
+            if (wordsInSentence > 0) {
+                sentences++;
+                wordsInSentence = 0;
+            }
+            // A keyword phrase does not span sentences
+            partialCount = 0;
+        }
+
+        private int skipSpaces(int i) {
+            while (i < length && (text.charAt(i) == ' ' || text.charAt(i) == '\t' || text.charAt(i) == '\r')) {
+                i++;
+            }
+            return i;
+        }
+
+        private int lineEnd(int i) {
+            int end = text.indexOf('\n', i);
+            end = end < 0 ? length : end;
+            // Trailing spaces and \r do not make a line non-blank
+            while (end > i && Character.isWhitespace(text.charAt(end - 1))) {
+                end--;
+            }
+            return end;
+        }
+
+        private int nextLine(int i) {
+            int end = text.indexOf('\n', i);
+            return end < 0 ? length : end + 1;
+        }
+
+        private boolean startsFence(int i) {
+            return text.startsWith("```", i) || text.startsWith("~~~", i);
+        }
+
+        // After the "> " markers of a (nested) blockquote line, or i when it is not quoted
+        private int quoteContentStart(int i, int to) {
+            while (i < to && text.charAt(i) == '>') {
+                i = skipSpaces(i + 1);
+            }
+            return i;
+        }
+
+        // "## " -> 2, 0 when the line is not a heading
+        private int headingLevel(int i) {
+            int level = 0;
+            while (i + level < length && text.charAt(i + level) == '#') {
+                level++;
+            }
+            if (level == 0 || level > 6) {
+                return 0;
+            }
+            int after = i + level;
+            return after >= length || text.charAt(after) == ' ' || text.charAt(after) == '\n' ? level : 0;
+        }
+
+        // End of "- ", "* ", "+ ", "1. ", "1) " or a table row's "|", or i when the line has none
+        private int listMarkerEnd(int i) {
+            char c = text.charAt(i);
+            if (c == '|') {
+                return i + 1;
+            }
+            if ((c == '-' || c == '*' || c == '+') && i + 1 < length && text.charAt(i + 1) == ' ') {
+                return i + 2;
+            }
+            int j = i;
+            while (j < length && j - i < 9 && Character.isDigit(text.charAt(j))) {
+                j++;
+            }
+            if (j > i && j + 1 < length && (text.charAt(j) == '.' || text.charAt(j) == ')') && text.charAt(j + 1) == ' ') {
+                return j + 2;
+            }
+            return i;
+        }
+
+        private int skipPast(int i, int to, char close) {
+            while (i < to && text.charAt(i) != close) {
+                i++;
+            }
+            return Math.min(to, i + 1);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.tree.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Identifies upload formats from their first bytes (file signatures), whatever the client declared
+ */
+public final class MagicBytes {
+    // Enough for the longest signature checked (WebP: "RIFF", 4 size bytes, "WEBP")
+    public static final int SNIFF_LENGTH = 16;
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] GIF87A = "GIF87a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GIF89A = "GIF89a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RIFF = "RIFF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WEBP = "WEBP".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private MagicBytes() {}
+
+    /**
+     * Media type of the content starting with these bytes, or null if unrecognised.
+     * SVG is text, so anything starting with '<' (after a UTF-8 BOM and whitespace) is
+     * reported as image/svg+xml; SvgSanitizer then checks it really is an SVG document.
+     */
+    public static String detect(byte[] header) {
+        if (startsWith(header, 0, PNG)) {
+            return "image/png";
+        }
+        if (startsWith(header, 0, JPEG)) {
+            return "image/jpeg";
+        }
+        if (startsWith(header, 0, GIF87A) || startsWith(header, 0, GIF89A)) {
+            return "image/gif";
+        }
+        if (startsWith(header, 0, RIFF) && startsWith(header, 8, WEBP)) {
+            return "image/webp";
+        }
+        return looksLikeMarkup(header) ? "image/svg+xml" : null;
+    }
+
+    private static boolean looksLikeMarkup(byte[] header) {
+        int i = startsWith(header, 0, UTF8_BOM) ? UTF8_BOM.length : 0;
+        while (i < header.length && Character.isWhitespace(header[i])) {
+            i++;
+        }
+        // A header of only whitespace is left to the XML parser
+        return i == header.length ? header.length > 0 : header[i] == '<';
+    }
+
+    private static boolean startsWith(byte[] header, int offset, byte[] signature) {
+        return header.length >= offset + signature.length
+                && Arrays.equals(header, offset, offset + signature.length, signature, 0, signature.length);
+    }
+}
@@ -1,31 +1,81 @@
 package com.tree.util;
 
+import com.vladsch.flexmark.ast.Heading;
+import com.vladsch.flexmark.html.AttributeProvider;
 import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.html.IndependentAttributeProviderFactory;
+import com.vladsch.flexmark.html.renderer.AttributablePart;
+import com.vladsch.flexmark.html.renderer.LinkResolverContext;
 import com.vladsch.flexmark.html2md.converter.FlexmarkHtmlConverter;
 import com.vladsch.flexmark.parser.Parser;
 import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.util.data.MutableDataSet;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public final class MarkdownUtil {
+    // Bump whenever parser/renderer options change; stored HTML from older versions is re-rendered
+    // 2: heading ids and server-side table of contents
+    public static final int RENDER_VERSION = 2;
+
     private static final Parser parser;
     private static final HtmlRenderer renderer;
     private static final FlexmarkHtmlConverter htmlConverter;
+    // Static utility, so it registers on the global registry Spring Boot adds its registries to
+    private static final Timer renderTimer = Timer.builder("markdown.render")
+            .description("Markdown to HTML rendering time")
+            .register(Metrics.globalRegistry);
+
+    // Writes the anchor id assigned in render() onto each <hN>
+    private static final AttributeProvider HEADING_ID_PROVIDER = (node, part, attributes) -> {
+        if (part == AttributablePart.NODE && node instanceof Heading heading && heading.getAnchorRefId() != null) {
+            attributes.replaceValue("id", heading.getAnchorRefId());
+        }
+    };
 
     static {
         MutableDataSet options = new MutableDataSet();
+        // Ids come from our own pass (accent-free, like slugs), not flexmark's generator
+        options.set(HtmlRenderer.GENERATE_HEADER_ID, false);
+        options.set(HtmlRenderer.RENDER_HEADER_ID, false);
         parser = Parser.builder(options).build();
-        renderer = HtmlRenderer.builder(options).build();
+        renderer = HtmlRenderer.builder(options)
+                .attributeProviderFactory(new IndependentAttributeProviderFactory() {
+                    @Override
+                    public AttributeProvider apply(LinkResolverContext context) {
+                        return HEADING_ID_PROVIDER;
+                    }
+                })
+                .build();
         htmlConverter = FlexmarkHtmlConverter.builder().build();
     }
 
     private MarkdownUtil() {}
 
     public static String markdownToHtml(String markdown) {
+        return render(markdown).html();
+    }
+
+    /**
+     * Parse once, give every heading a unique anchor id, then render HTML and
+     * collect the table of contents from the same document
+     */
+    public static Rendered render(String markdown) {
         if (markdown == null || markdown.isBlank()) {
-            return "";
+            return new Rendered("", List.of());
         }
-        Node document = parser.parse(markdown);
-        return renderer.render(document);
+        return renderTimer.record(() -> {
+            Node document = parser.parse(markdown);
+            List<TocEntry> tableOfContents = assignHeadingIds(document);
+            return new Rendered(renderer.render(document), tableOfContents);
+        });
     }
 
     public static String htmlToMarkdown(String html) {
@@ -34,4 +84,59 @@ public final class MarkdownUtil {
         }
         return htmlConverter.convert(html);
     }
+
+    // Nests each heading under the closest preceding heading of a lower level
+    private static List<TocEntry> assignHeadingIds(Node document) {
+        List<TocEntry> roots = new ArrayList<>();
+        Deque<TocEntry> open = new ArrayDeque<>();
+        Map<String, Integer> used = new HashMap<>();
+
+        for (Node node : document.getDescendants()) {
+            if (!(node instanceof Heading heading)) {
+                continue;
+            }
+            String text = heading.getAnchorRefText().trim();
+            String id = uniqueId(text, used);
+            heading.setAnchorRefId(id);
+            heading.setExplicitAnchorRefId(true);
+
+            TocEntry entry = new TocEntry(id, text, heading.getLevel(), new ArrayList<>());
+            while (!open.isEmpty() && open.peek().level() >= entry.level()) {
+                open.pop();
+            }
+            if (open.isEmpty()) {
+                roots.add(entry);
+            } else {
+                open.peek().children().add(entry);
+            }
+            open.push(entry);
+        }
+        return roots;
+    }
+
+    // "gioi-thieu", then "gioi-thieu-1", "gioi-thieu-2" for repeated headings
+    private static String uniqueId(String text, Map<String, Integer> used) {
+        String base = SlugUtil.toSlug(text);
+        if (base.isEmpty()) {
+            base = "section";
+        }
+        String id = base;
+        int count = used.getOrDefault(base, 0);
+        while (used.containsKey(id)) {
+            id = base + "-" + ++count;
+        }
+        used.put(base, count);
+        used.putIfAbsent(id, 0);
+        return id;
+    }
+
+    /**
+     * Rendered HTML plus its heading outline
+     */
+    public record Rendered(String html, List<TocEntry> tableOfContents) {}
+
+    /**
+     * One heading: anchor id, plain text, level (1-6) and nested subheadings
+     */
+    public record TocEntry(String id, String text, int level, List<TocEntry> children) {}
 }
@@ -8,6 +8,7 @@ public final class SlugUtil {
     private static final Pattern NON_LATIN = Pattern.compile("[^\\w-]");
     private static final Pattern WHITESPACE = Pattern.compile("[\\s]");
     private static final Pattern EDGES_DASHES = Pattern.compile("(^-|-$)");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
 
     private SlugUtil() {}
 
@@ -16,15 +17,26 @@ public final class SlugUtil {
             return "";
         }
 
-        String normalized = Normalizer.normalize(input, Normalizer.Form.NFD);
-        String withoutAccents = normalized.replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
-        String replaced = WHITESPACE.matcher(withoutAccents).replaceAll("-");
+        String replaced = WHITESPACE.matcher(removeAccents(input)).replaceAll("-");
         String slug = NON_LATIN.matcher(replaced).replaceAll("");
         slug = EDGES_DASHES.matcher(slug).replaceAll("");
 
         return slug.toLowerCase(Locale.ENGLISH);
     }
 
+    /**
+     * Strip diacritics (NFD + combining marks); đ/Đ have no decomposition and are mapped explicitly
+     */
+    public static String removeAccents(String input) {
+        if (input == null || input.isEmpty()) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(input, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(normalized).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D');
+    }
+
     public static String generateUniqueSlug(String baseSlug, java.util.function.Predicate<String> existsCheck) {
         String slug = toSlug(baseSlug);
         if (!existsCheck.test(slug)) {
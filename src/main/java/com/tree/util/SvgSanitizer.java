@@ -0,0 +1,191 @@
+package com.tree.util;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Streams an SVG document through an allow-list filter (StAX events in, events out).
+ *
+ * Kept: elements in the SVG namespace and their plain attributes, xml:* and xlink:href.
+ * Dropped: script, foreignObject and anything outside the SVG namespace (with their
+ * subtrees), on* handlers, links other than #fragments and raster data: URIs, animations
+ * that retarget links or handlers, and CSS that imports, scripts or loads external URLs.
+ * DTDs, entities, comments and processing instructions never reach the output, and DTD
+ * support is off in the parser so entity expansion and external entities are impossible.
+ * Only <style> contents are buffered; the rest of the document is never held in memory.
+ */
+public final class SvgSanitizer {
+    private static final String SVG_NS = "http://www.w3.org/2000/svg";
+    private static final String XLINK_NS = "http://www.w3.org/1999/xlink";
+
+    // Lower-cased local names
+    private static final Set<String> DROPPED_ELEMENTS = Set.of("script", "foreignobject", "handler", "listener");
+    private static final Set<String> ANIMATION_ELEMENTS = Set.of("set", "animate", "animatemotion", "animatetransform");
+    private static final Pattern SAFE_LINK = Pattern.compile("(?i)\\s*(#.*|data:image/(png|jpeg|gif|webp)[;,].*)", Pattern.DOTALL);
+    private static final Pattern UNSAFE_CSS = Pattern.compile(
+            "(?i)javascript:|expression\\s*\\(|@import|behavior\\s*:|-moz-binding|url\\s*\\(\\s*['\"]?\\s*(?!#)");
+
+    private static final XMLInputFactory INPUT_FACTORY = inputFactory();
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+    private static final XMLEventFactory EVENTS = XMLEventFactory.newFactory();
+
+    private SvgSanitizer() {}
+
+    /**
+     * Write a sanitised, UTF-8 copy of the SVG read from in to out. Neither stream is closed.
+     *
+     * @throws XMLStreamException if the input is not well-formed XML or its root is not an svg element
+     */
+    public static void sanitize(InputStream in, OutputStream out) throws XMLStreamException {
+        XMLEventReader reader = INPUT_FACTORY.createXMLEventReader(in);
+        XMLEventWriter writer = OUTPUT_FACTORY.createXMLEventWriter(out, "UTF-8");
+        try {
+            writer.add(EVENTS.createStartDocument("UTF-8", "1.0"));
+            boolean rootSeen = false;
+            int skipDepth = 0;
+            StartElement style = null;
+            StringBuilder css = new StringBuilder();
+
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    StartElement start = event.asStartElement();
+                    if (!rootSeen) {
+                        rootSeen = true;
+                        if (!isSvg(start.getName()) || !"svg".equals(start.getName().getLocalPart())) {
+                            throw new XMLStreamException("Root element must be <svg> in the SVG namespace");
+                        }
+                    }
+                    if (skipDepth > 0 || style != null || dropped(start)) {
+                        // Elements inside <style> have no business there either
+                        skipDepth++;
+                    } else if ("style".equalsIgnoreCase(start.getName().getLocalPart())) {
+                        style = filtered(start);
+                        css.setLength(0);
+                    } else {
+                        writer.add(filtered(start));
+                    }
+                } else if (event.isEndElement()) {
+                    if (skipDepth > 0) {
+                        skipDepth--;
+                    } else if (style != null) {
+                        // The whole stylesheet goes, not just the offending rule
+                        if (!UNSAFE_CSS.matcher(css).find()) {
+                            writer.add(style);
+                            writer.add(EVENTS.createCharacters(css.toString()));
+                            writer.add(event);
+                        }
+                        style = null;
+                    } else {
+                        writer.add(event);
+                    }
+                } else if (event.isCharacters()) {
+                    if (skipDepth > 0) {
+                        continue;
+                    }
+                    if (style != null) {
+                        css.append(event.asCharacters().getData());
+                    } else if (rootSeen) {
+                        writer.add(event);
+                    }
+                }
+                // DTD, entity references, comments and processing instructions are dropped
+            }
+            if (!rootSeen) {
+                throw new XMLStreamException("No root element");
+            }
+            writer.add(EVENTS.createEndDocument());
+            writer.flush();
+        } finally {
+            writer.close();
+            reader.close();
+        }
+    }
+
+    private static boolean dropped(StartElement start) {
+        String name = start.getName().getLocalPart().toLowerCase(Locale.ROOT);
+        if (!isSvg(start.getName()) || DROPPED_ELEMENTS.contains(name)) {
+            return true;
+        }
+        if (ANIMATION_ELEMENTS.contains(name)) {
+            // <set attributeName="href" to="javascript:..."> turns a harmless link into script
+            Attribute target = start.getAttributeByName(new QName("attributeName"));
+            String attribute = target != null ? target.getValue().trim().toLowerCase(Locale.ROOT) : "";
+            return attribute.endsWith("href") || attribute.startsWith("on") || attribute.equals("style");
+        }
+        return false;
+    }
+
+    // Same element with unsafe attributes and foreign namespace declarations removed
+    private static StartElement filtered(StartElement start) {
+        List<Attribute> attributes = new ArrayList<>();
+        for (Iterator<Attribute> it = start.getAttributes(); it.hasNext(); ) {
+            Attribute attribute = it.next();
+            if (allowed(attribute)) {
+                attributes.add(attribute);
+            }
+        }
+        List<Namespace> namespaces = new ArrayList<>();
+        for (Iterator<Namespace> it = start.getNamespaces(); it.hasNext(); ) {
+            Namespace namespace = it.next();
+            if (SVG_NS.equals(namespace.getNamespaceURI()) || XLINK_NS.equals(namespace.getNamespaceURI())) {
+                namespaces.add(namespace);
+            }
+        }
+        QName name = start.getName();
+        return EVENTS.createStartElement(name.getPrefix(), name.getNamespaceURI(), name.getLocalPart(),
+                attributes.iterator(), namespaces.iterator());
+    }
+
+    private static boolean allowed(Attribute attribute) {
+        QName name = attribute.getName();
+        String local = name.getLocalPart().toLowerCase(Locale.ROOT);
+        String namespace = name.getNamespaceURI();
+        String value = attribute.getValue();
+
+        if (XMLConstants.XML_NS_URI.equals(namespace)) {
+            return true;
+        }
+        if (local.equals("href") && (namespace.isEmpty() || XLINK_NS.equals(namespace))) {
+            return SAFE_LINK.matcher(value).matches();
+        }
+        if (!namespace.isEmpty() || local.startsWith("on")) {
+            return false;
+        }
+        if (local.equals("style")) {
+            return !UNSAFE_CSS.matcher(value).find();
+        }
+        // Presentation attributes (fill, filter, mask, clip-path...) may also reference url(...)
+        return !UNSAFE_CSS.matcher(value).find();
+    }
+
+    private static boolean isSvg(QName name) {
+        return SVG_NS.equals(name.getNamespaceURI());
+    }
+
+    private static XMLInputFactory inputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
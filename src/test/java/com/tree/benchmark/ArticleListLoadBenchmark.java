@@ -0,0 +1,222 @@
+package com.tree.benchmark;
+
+import com.tree.dto.article.ArticleRequest;
+import com.tree.entity.Category;
+import com.tree.entity.User;
+import com.tree.repository.CategoryRepository;
+import com.tree.repository.UserRepository;
+import com.tree.service.ArticleService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Closed-loop load test of GET /api/public/articles: N clients each send requests
+ * back to back for a fixed duration, then throughput and latency percentiles are printed.
+ *
+ * Run with mvn test -Pbenchmark; needs Docker for the PostgreSQL container. Tuning:
+ * -Dbenchmark.concurrency, -Dbenchmark.warmup-seconds, -Dbenchmark.duration-seconds,
+ * -Dbenchmark.articles, -Dbenchmark.categories, -Dbenchmark.authors.
+ *
+ * Do not run this against H2: an in-memory database answers without blocking I/O, and an
+ * empty one without even a query plan, so platform and virtual threads come out the same
+ * for reasons unrelated to production. The numbers only mean something against PostgreSQL
+ * over a real connection pool, with a seeded article set.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "benchmark"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class ArticleListLoadBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 20));
+    private static final int ARTICLES = Integer.getInteger("benchmark.articles", 600);
+    private static final int CATEGORIES = Integer.getInteger("benchmark.categories", 12);
+    private static final int AUTHORS = Integer.getInteger("benchmark.authors", 8);
+
+    // Started once for both subclasses; Testcontainers removes it when the JVM exits
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeAll
+    void seed() {
+        // Each subclass starts its own context, whose create-drop schema replaces the last one's
+        List<User> authors = new ArrayList<>(AUTHORS);
+        for (int i = 0; i < AUTHORS; i++) {
+            authors.add(userRepository.save(User.builder()
+                    .email("author" + i + "@benchmark.test")
+                    .password("not-used")
+                    .fullName("Author " + i)
+                    .role(User.Role.EDITOR)
+                    .active(true)
+                    .build()));
+        }
+
+        List<Category> categories = new ArrayList<>(CATEGORIES);
+        for (int i = 0; i < CATEGORIES; i++) {
+            // Every third category nests under the one before it, as topic trees do
+            Category parent = i % 3 == 0 || categories.isEmpty() ? null : categories.get(i - 1);
+            categories.add(categoryRepository.save(Category.builder()
+                    .name("Category " + i)
+                    .slug("category-" + i)
+                    .parent(parent)
+                    .active(true)
+                    .sortOrder(i)
+                    .build()));
+        }
+
+        // Through the service, so rendered HTML, summaries, scores and counts match real rows
+        for (int i = 0; i < ARTICLES; i++) {
+            ArticleRequest request = new ArticleRequest();
+            request.setTitle("Benchmark article " + i);
+            request.setContent(articleContent(i));
+            request.setTags("benchmark,tag-" + i % 20);
+            request.setStatus("PUBLISHED");
+            request.setCategoryId(categories.get(i % CATEGORIES).getId().toString());
+            articleService.create(request, authors.get(i % AUTHORS).getId());
+        }
+    }
+
+    // A few sections of prose with headings, links and a list: about a 3-minute read
+    private static String articleContent(int n) {
+        StringBuilder content = new StringBuilder();
+        for (int section = 1; section <= 5; section++) {
+            content.append("## Section ").append(section).append(" of article ").append(n).append("\n\n");
+            content.append("Paragraph with a [link](https://example.com/").append(n).append(") and some **bold** text. ")
+                    .append("Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(12))
+                    .append("\n\n");
+            content.append("- First point\n- Second point\n- Third point\n\n");
+        }
+        return content.toString();
+    }
+
+    @Test
+    void articleList() throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/api/public/articles?page=0&size=10");
+        String mode = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                ? "virtual" : "platform";
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clients)
+                    .build();
+
+            run(clients, http, uri, WARMUP);
+            Result result = run(clients, http, uri, DURATION);
+
+            System.out.printf("[benchmark] %s threads, %d clients: %.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, %d errors%n",
+                    mode, CONCURRENCY, result.throughput(), result.percentileMs(50), result.percentileMs(99),
+                    result.percentileMs(100), result.errors());
+
+            assertTrue(result.requests() > 0);
+            assertEquals(0, result.errors());
+        }
+    }
+
+    private Result run(ExecutorService clients, HttpClient http, URI uri, Duration duration) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        List<Future<long[]>> workers = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            workers.add(clients.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - sent;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        List<long[]> perWorker = new ArrayList<>(CONCURRENCY);
+        for (Future<long[]> worker : workers) {
+            perWorker.add(worker.get());
+        }
+        return Result.of(perWorker, errors.get(), System.nanoTime() - start);
+    }
+
+    private record Result(long[] sortedLatencies, long errors, long elapsedNanos) {
+
+        static Result of(List<long[]> perWorker, long errors, long elapsedNanos) {
+            long[] all = perWorker.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(all, errors, elapsedNanos);
+        }
+
+        long requests() {
+            return sortedLatencies.length;
+        }
+
+        double throughput() {
+            return sortedLatencies.length / (elapsedNanos / 1e9);
+        }
+
+        double percentileMs(double percentile) {
+            if (sortedLatencies.length == 0) return 0;
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.tree.benchmark;
+
+import com.tree.util.ContentAnalyzer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH microbenchmark: ContentAnalyzer on a generated 10k-word Vietnamese article,
+ * next to the regex split that used to compute reading time alone.
+ *
+ * Run with mvn test -Pbenchmark -Dtest=ContentAnalyzerBenchmark; results are
+ * average microseconds per article (plus bytes allocated with -Dbenchmark.gc=true).
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentAnalyzerBenchmark {
+
+    private static final int WORDS = 10_000;
+    private static final String[] SYLLABLES = {
+            "trầm", "hương", "gỗ", "tự", "nhiên", "vòng", "tay", "mùi", "thơm", "quý", "hiếm", "người",
+            "mua", "bán", "chọn", "cách", "phân", "biệt", "thật", "giả", "giá", "trị", "cao", "xông",
+            "nhà", "phong", "thủy", "may", "mắn", "sức", "khỏe", "và", "của", "là", "có", "được", "những"
+    };
+
+    private ContentAnalyzer.Input input;
+
+    @Setup
+    public void setUp() {
+        input = new ContentAnalyzer.Input(article(WORDS), "Trầm hương tự nhiên", "tram-huong-tu-nhien",
+                "trầm hương", null, "Cách chọn trầm hương tự nhiên");
+    }
+
+    @Benchmark
+    public ContentAnalyzer.Analysis analyze() {
+        return ContentAnalyzer.analyze(input);
+    }
+
+    @Benchmark
+    public int regexSplitWordCount() {
+        return input.content().split("\\s+").length;
+    }
+
+    @Test
+    void run() throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(ContentAnalyzerBenchmark.class.getName());
+        if (Boolean.getBoolean("benchmark.gc")) {
+            options.addProfiler("gc");
+        }
+        new Runner(options.build()).run();
+    }
+
+    // Markdown with a subheading every ~300 words, 8-25 word sentences and a list now and then
+    static String article(int words) {
+        Random random = new Random(42);
+        StringBuilder markdown = new StringBuilder(words * 7);
+        markdown.append("# Trầm hương tự nhiên\n\n");
+        int written = 0;
+        int nextHeading = 300;
+        while (written < words) {
+            if (written >= nextHeading) {
+                markdown.append("\n\n## Trầm hương phần ").append(nextHeading / 300).append("\n\n");
+                nextHeading += 300;
+            }
+            int sentence = 8 + random.nextInt(18);
+            for (int i = 0; i < sentence && written < words; i++, written++) {
+                String syllable = SYLLABLES[random.nextInt(SYLLABLES.length)];
+                markdown.append(i == 0 ? Character.toUpperCase(syllable.charAt(0)) + syllable.substring(1) : syllable);
+                markdown.append(i + 1 < sentence ? ' ' : '.');
+            }
+            markdown.append(random.nextInt(10) == 0 ? "\n\n- " : " ");
+        }
+        return markdown.toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.tree.benchmark;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Closed-loop throughput of GET /uploads/** (UploadController: sendfile/transferTo,
+ * validators, ranges) against the previous setup, a ResourceHttpRequestHandler with
+ * a one-hour cache period, mounted here at /api/public/legacy-uploads/**.
+ *
+ * Run with mvn test -Pbenchmark -Dtest=UploadServingLoadBenchmark. Tuning:
+ * -Dbenchmark.concurrency, -Dbenchmark.warmup-seconds, -Dbenchmark.duration-seconds.
+ * Both handlers read the same 16 KB and 1 MB files; sendfile only applies above 48 KB.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.upload.dir=" + UploadServingLoadBenchmark.UPLOAD_DIR)
+@ActiveProfiles("test")
+class UploadServingLoadBenchmark {
+
+    static final String UPLOAD_DIR = "target/upload-benchmark";
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 64);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 15));
+
+    @LocalServerPort
+    private int port;
+
+    @TestConfiguration
+    static class LegacyResourceHandler implements WebMvcConfigurer {
+
+        @Override
+        public void addResourceHandlers(ResourceHandlerRegistry registry) {
+            registry.addResourceHandler("/api/public/legacy-uploads/**")
+                    .addResourceLocations("file:" + UPLOAD_DIR + "/")
+                    .setCachePeriod(3600);
+        }
+    }
+
+    @BeforeAll
+    static void writeFiles() throws IOException {
+        Path products = Files.createDirectories(Paths.get(UPLOAD_DIR, "products"));
+        Random random = new Random(42);
+        for (int kilobytes : new int[] {16, 1024}) {
+            byte[] bytes = new byte[kilobytes * 1024];
+            random.nextBytes(bytes);
+            Files.write(products.resolve(kilobytes + "k.jpg"), bytes);
+        }
+    }
+
+    @Test
+    void uploads() throws Exception {
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clients)
+                    .build();
+
+            for (String file : List.of("16k.jpg", "1024k.jpg")) {
+                for (String prefix : List.of("/uploads/products/", "/api/public/legacy-uploads/products/")) {
+                    URI uri = URI.create("http://localhost:" + port + prefix + file);
+                    run(clients, http, uri, WARMUP);
+                    Result result = run(clients, http, uri, DURATION);
+
+                    System.out.printf("[benchmark] %-40s %d clients: %.0f req/s, %.1f MB/s, %d errors%n",
+                            prefix + file, CONCURRENCY, result.throughput(), result.megabytesPerSecond(), result.errors());
+                    assertTrue(result.requests() > 0);
+                    assertEquals(0, result.errors());
+                }
+            }
+        }
+    }
+
+    private Result run(ExecutorService clients, HttpClient http, URI uri, Duration duration) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        AtomicLong requests = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        List<Future<?>> workers = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            workers.add(clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        requests.incrementAndGet();
+                        bytes.addAndGet(response.body().length);
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        return new Result(requests.get(), bytes.get(), errors.get(), System.nanoTime() - start);
+    }
+
+    private record Result(long requests, long bytes, long errors, long elapsedNanos) {
+
+        double throughput() {
+            return requests / (elapsedNanos / 1e9);
+        }
+
+        double megabytesPerSecond() {
+            return bytes / 1e6 / (elapsedNanos / 1e9);
+        }
+    }
+}
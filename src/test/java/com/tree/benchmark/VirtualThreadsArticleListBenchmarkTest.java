@@ -0,0 +1,7 @@
+package com.tree.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadsArticleListBenchmarkTest extends ArticleListLoadBenchmark {
+}
@@ -0,0 +1,45 @@
+package com.tree.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingRejectedExecutionHandlerTest {
+
+    @Test
+    void saturatedPool_RunsTaskOnCallerAndCounts() throws Exception {
+        CountingRejectedExecutionHandler handler = new CountingRejectedExecutionHandler("test");
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1), handler);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // One running, one queued: the pool is full
+            pool.execute(() -> await(release));
+            pool.execute(() -> await(release));
+
+            AtomicReference<Thread> ranOn = new AtomicReference<>();
+            pool.execute(() -> ranOn.set(Thread.currentThread()));
+
+            assertSame(Thread.currentThread(), ranOn.get());
+            assertEquals(1, handler.getRejectedCount());
+        } finally {
+            release.countDown();
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
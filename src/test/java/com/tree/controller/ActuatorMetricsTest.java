@@ -0,0 +1,63 @@
+package com.tree.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Metrics export is off in tests unless observability is auto-configured explicitly
+@SpringBootTest(properties = "app.metrics.scrape-token=" + ActuatorMetricsTest.SCRAPE_TOKEN)
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class ActuatorMetricsTest {
+
+    static final String SCRAPE_TOKEN = "test-scrape-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void health_IsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+
+    @Test
+    void metricsEndpoint_RequiresAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void prometheus_RequiresScrapeTokenOrAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, "Bearer wrong-token"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void prometheus_ExposesRouteHistogramsAndApplicationMeters() throws Exception {
+        mockMvc.perform(get("/api/public/articles"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, "Bearer " + SCRAPE_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("uri=\"/api/public/articles\"")))
+                .andExpect(content().string(containsString("cache=\"article-pages\"")))
+                .andExpect(content().string(containsString("cache=\"list-counts\"")))
+                .andExpect(content().string(containsString("executor_rejected_total{")))
+                .andExpect(content().string(containsString("hikaricp_connections")));
+    }
+}
@@ -0,0 +1,132 @@
+package com.tree.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.tree.dto.article.ArticleRequest;
+import com.tree.entity.User;
+import com.tree.repository.ArticleRepository;
+import com.tree.repository.UserRepository;
+import com.tree.security.JwtTokenProvider;
+import com.tree.service.ArticleRenderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminArticleControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private ArticleRenderService articleRenderService;
+
+    private String authToken;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User admin = userRepository.save(User.builder()
+                .email("admin@test.com")
+                .password(passwordEncoder.encode("password"))
+                .fullName("Admin")
+                .role(User.Role.ADMIN)
+                .active(true)
+                .build());
+
+        var userPrincipal = new com.tree.security.UserPrincipal(
+                admin.getId(), admin.getEmail(), admin.getPassword(),
+                admin.getFullName(), admin.getRole().name(), admin.isActive(),
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))
+        );
+        var auth = new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities());
+        authToken = jwtTokenProvider.generateToken(auth);
+    }
+
+    @Test
+    void updateArticle_WithLoadedTableOfContents_IgnoresItAndRegenerates() throws Exception {
+        ArticleRequest request = new ArticleRequest();
+        request.setTitle("Round trip");
+        request.setContent("## First heading");
+
+        String created = mockMvc.perform(post("/api/admin/articles")
+                        .header("Authorization", "Bearer " + authToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        ObjectNode article = (ObjectNode) objectMapper.readTree(created).get("data");
+
+        // What an editor does: load, change the content, PUT the whole object back
+        article.put("content", "## Second heading");
+
+        mockMvc.perform(put("/api/admin/articles/" + article.get("id").asText())
+                        .header("Authorization", "Bearer " + authToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(article)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.tableOfContents").value(containsString("Second heading")))
+                .andExpect(jsonPath("$.data.tableOfContents").value(not(containsString("First heading"))));
+    }
+
+    @Test
+    void reRender_WhileAlreadyRunning_ReturnsConflict() throws Exception {
+        ReentrantLock lock = (ReentrantLock) ReflectionTestUtils.getField(articleRenderService, "rerenderLock");
+        // Held by another thread, as during a scheduled run (the lock is reentrant for this one)
+        ExecutorService runner = Executors.newSingleThreadExecutor();
+        try {
+            runner.submit(lock::lock).get();
+
+            mockMvc.perform(post("/api/admin/articles/re-render")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.success").value(false));
+        } finally {
+            runner.submit(lock::unlock).get();
+            runner.shutdown();
+        }
+
+        mockMvc.perform(post("/api/admin/articles/re-render")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.rendered").value(0));
+    }
+}
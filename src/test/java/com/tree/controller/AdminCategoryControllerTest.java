@@ -102,6 +102,50 @@ class AdminCategoryControllerTest {
                 .andExpect(jsonPath("$.data.length()").value(2));
     }
 
+    @Test
+    void getCategoryTree_NestsChildrenWithLevels() throws Exception {
+        Category root = categoryRepository.save(Category.builder()
+                .name("Root").slug("root").active(true).sortOrder(1).build());
+        Category child = categoryRepository.save(Category.builder()
+                .name("Child").slug("child").active(true).sortOrder(1).parent(root).build());
+        categoryRepository.save(Category.builder()
+                .name("Grandchild").slug("grandchild").active(true).sortOrder(1).parent(child).build());
+
+        mockMvc.perform(get("/api/admin/categories/tree")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].level").value(0))
+                .andExpect(jsonPath("$.data[0].children[0].name").value("Child"))
+                .andExpect(jsonPath("$.data[0].children[0].parentName").value("Root"))
+                .andExpect(jsonPath("$.data[0].children[0].children[0].level").value(2));
+    }
+
+    @Test
+    void getCategoryById_ReturnsOnlyItsSubtree() throws Exception {
+        Category root = categoryRepository.save(Category.builder()
+                .name("Root").slug("root").active(true).sortOrder(1).build());
+        Category child = categoryRepository.save(Category.builder()
+                .name("Child").slug("child").active(true).sortOrder(1).parent(root).build());
+        categoryRepository.save(Category.builder()
+                .name("Grandchild").slug("grandchild").active(true).sortOrder(1).parent(child).build());
+        categoryRepository.save(Category.builder()
+                .name("Removed").slug("removed").active(true).sortOrder(2).parent(child).deleted(true).build());
+        categoryRepository.save(Category.builder()
+                .name("Other").slug("other").active(true).sortOrder(2).build());
+
+        mockMvc.perform(get("/api/admin/categories/" + child.getId())
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.name").value("Child"))
+                .andExpect(jsonPath("$.data.level").value(1))
+                .andExpect(jsonPath("$.data.parentName").value("Root"))
+                .andExpect(jsonPath("$.data.children.length()").value(1))
+                .andExpect(jsonPath("$.data.children[0].name").value("Grandchild"))
+                .andExpect(jsonPath("$.data.children[0].parentName").value("Child"))
+                .andExpect(jsonPath("$.data.children[0].level").value(2));
+    }
+
     @Test
     void updateCategory_Success() throws Exception {
         Category category = categoryRepository.save(Category.builder()
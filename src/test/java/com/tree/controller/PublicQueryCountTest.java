@@ -0,0 +1,177 @@
+package com.tree.controller;
+
+import com.tree.entity.Article;
+import com.tree.entity.Category;
+import com.tree.entity.Product;
+import com.tree.entity.User;
+import com.tree.repository.ArticleRepository;
+import com.tree.repository.CategoryRepository;
+import com.tree.repository.ProductRepository;
+import com.tree.repository.UserRepository;
+import com.tree.service.ArticlePageCache;
+import com.tree.service.CountCache;
+import com.tree.support.SqlStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// SQL statements per public endpoint: a page of rows with categories must not fan out into per-row selects
+@SpringBootTest(properties = "app.view-count.flush-interval-ms=3600000")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PublicQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArticlePageCache articlePageCache;
+
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SqlStatementCounter sql;
+
+    @BeforeEach
+    void setUp() {
+        articlePageCache.invalidateAll();
+        countCache.invalidate(CountCache.ARTICLES);
+        countCache.invalidate(CountCache.PRODUCTS);
+        articleRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+
+        Category root = categoryRepository.save(Category.builder()
+                .name("Trầm hương").slug("tram-huong").active(true).sortOrder(1).build());
+        List<Category> children = List.of(
+                child(root, "Vòng tay", "vong-tay"),
+                child(root, "Tượng phật", "tuong-phat"),
+                child(root, "Nhang", "nhang"));
+
+        User author = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com").password("x").fullName("Author")
+                .role(User.Role.ADMIN).active(true).build());
+
+        for (int i = 0; i < 12; i++) {
+            Category category = children.get(i % children.size());
+            productRepository.save(Product.builder()
+                    .name("Sản phẩm " + i).slug("san-pham-" + i).category(category).build());
+            articleRepository.save(Article.builder()
+                    .title("Bài viết " + i).slug("bai-viet-" + i).content("Nội dung trầm hương " + i)
+                    .status(Article.Status.PUBLISHED).viewCount(0L)
+                    .category(category).author(author).build());
+        }
+
+        sql = new SqlStatementCounter(entityManagerFactory);
+        sql.reset();
+    }
+
+    private Category child(Category parent, String name, String slug) {
+        return categoryRepository.save(Category.builder()
+                .name(name).slug(slug).parent(parent).active(true).sortOrder(1).build());
+    }
+
+    @Test
+    void productList_OneSelectPerPage() throws Exception {
+        mockMvc.perform(get("/api/public/products").param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(12))
+                .andExpect(jsonPath("$.data.content[0].category.parentName").value("Trầm hương"));
+
+        sql.assertAtMost(1, "GET /api/public/products?withTotal=false");
+    }
+
+    @Test
+    void productList_CountsOnceThenServesCachedTotal() throws Exception {
+        mockMvc.perform(get("/api/public/products")).andExpect(status().isOk());
+        sql.assertAtMost(2, "GET /api/public/products (count cache miss)");
+
+        sql.reset();
+        mockMvc.perform(get("/api/public/products"))
+                .andExpect(jsonPath("$.data.totalElements").value(12));
+        sql.assertAtMost(1, "GET /api/public/products (count cache hit)");
+    }
+
+    @Test
+    void productBySlug_SingleSelect() throws Exception {
+        mockMvc.perform(get("/api/public/products/san-pham-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.category.level").value(1));
+
+        sql.assertAtMost(1, "GET /api/public/products/{slug}");
+    }
+
+    @Test
+    void articleBySlug_SingleSelectOnCacheMiss() throws Exception {
+        mockMvc.perform(get("/api/public/articles/bai-viet-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.author.fullName").value("Author"));
+        sql.assertAtMost(1, "GET /api/public/articles/{slug} (cache miss)");
+
+        sql.reset();
+        mockMvc.perform(get("/api/public/articles/bai-viet-1")).andExpect(status().isOk());
+        sql.assertAtMost(0, "GET /api/public/articles/{slug} (cached)");
+    }
+
+    @Test
+    void articleList_SummaryProjection() throws Exception {
+        mockMvc.perform(get("/api/public/articles").param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(10));
+
+        sql.assertAtMost(1, "GET /api/public/articles?withTotal=false");
+    }
+
+    @Test
+    void articleFeed_OneSelectPerPage_WithoutShadowingSlugs() throws Exception {
+        mockMvc.perform(get("/api/public/feed/articles").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(10))
+                .andExpect(jsonPath("$.data.hasNext").value(true));
+        sql.assertAtMost(1, "GET /api/public/feed/articles");
+
+        // "feed" is an ordinary slug; the cursor feed lives outside /articles/{slug}
+        Article article = articleRepository.findBySlug("bai-viet-1").orElseThrow();
+        article.setSlug("feed");
+        articleRepository.save(article);
+        mockMvc.perform(get("/api/public/articles/feed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.title").value("Bài viết 1"));
+    }
+
+    @Test
+    void articleSearch_PageAndCountOnly() throws Exception {
+        mockMvc.perform(get("/api/public/articles/search").param("keyword", "trầm"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(10));
+
+        sql.assertAtMost(2, "GET /api/public/articles/search");
+    }
+}
@@ -0,0 +1,109 @@
+package com.tree.controller;
+
+import com.tree.dto.SiteSettingsDTO;
+import com.tree.dto.seo.SeoSettingsRequest;
+import com.tree.service.SeoSettingsService;
+import com.tree.service.SiteSettingsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PublicSettingsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SiteSettingsService siteSettingsService;
+
+    @Autowired
+    private SeoSettingsService seoSettingsService;
+
+    @Test
+    void getSiteSettings_MatchingETag_ReturnsNotModified() throws Exception {
+        String eTag = mockMvc.perform(get("/api/public/site-settings"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$.data.siteName").exists())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Strong validator: quoted, no W/ prefix
+        assertTrue(eTag.matches("\"[0-9a-f]{32}\""), eTag);
+
+        mockMvc.perform(get("/api/public/site-settings").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void saveSiteSettings_SwapsSnapshotAndETag() throws Exception {
+        String before = mockMvc.perform(get("/api/public/site-settings"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        SiteSettingsDTO dto = siteSettingsService.getSettings();
+        SiteSettingsDTO changed = new SiteSettingsDTO();
+        changed.setSiteName("Trầm " + UUID.randomUUID());
+        changed.setServices(dto.getServices());
+        changed.setNavLeftMenu(dto.getNavLeftMenu());
+        changed.setNavRightMenu(dto.getNavRightMenu());
+        siteSettingsService.saveSettings(changed);
+
+        String after = mockMvc.perform(get("/api/public/site-settings").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.siteName").value(changed.getSiteName()))
+                .andExpect(jsonPath("$.data.navLeftMenu[0].href").value(dto.getNavLeftMenu().get(0).getHref()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void getSettings_ChangingResult_LeavesServedSnapshotAlone() throws Exception {
+        String siteName = siteSettingsService.getSnapshot().value().getSiteName();
+        String href = siteSettingsService.getSnapshot().value().getNavLeftMenu().get(0).getHref();
+        String metaTitle = seoSettingsService.getSnapshot().value().getMetaTitle();
+
+        SiteSettingsDTO site = siteSettingsService.getSettings();
+        site.setSiteName("changed");
+        site.getNavLeftMenu().get(0).setHref("/changed");
+        seoSettingsService.getSettings().setMetaTitle("changed");
+
+        mockMvc.perform(get("/api/public/site-settings"))
+                .andExpect(jsonPath("$.data.siteName").value(siteName))
+                .andExpect(jsonPath("$.data.navLeftMenu[0].href").value(href));
+        mockMvc.perform(get("/api/public/seo"))
+                .andExpect(jsonPath("$.data.metaTitle").value(metaTitle));
+    }
+
+    @Test
+    void saveSeoSettings_SwapsSnapshotAndETag() throws Exception {
+        String before = mockMvc.perform(get("/api/public/seo"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        SeoSettingsRequest request = new SeoSettingsRequest();
+        request.setSiteName("Tree");
+        request.setMetaTitle("Trầm " + UUID.randomUUID());
+        seoSettingsService.saveSettings(request);
+
+        mockMvc.perform(get("/api/public/seo").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(before)))
+                .andExpect(jsonPath("$.data.metaTitle").value(request.getMetaTitle()));
+    }
+}
@@ -0,0 +1,106 @@
+package com.tree.controller;
+
+import com.tree.dto.category.CategoryRequest;
+import com.tree.entity.Category;
+import com.tree.repository.ArticleRepository;
+import com.tree.repository.CategoryRepository;
+import com.tree.repository.ProductRepository;
+import com.tree.service.CategoryService;
+import com.tree.service.SitemapService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Two URLs per file so the index/shard split is exercised with a handful of rows
+@SpringBootTest(properties = "app.sitemap.max-urls-per-file=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SitemapControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private SitemapService sitemapService;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+
+        categoryRepository.save(Category.builder()
+                .name("Vòng tay").slug("vong-tay").active(true).sortOrder(1).build());
+        sitemapService.invalidate();
+    }
+
+    @Test
+    void getSitemap_SplitsIntoIndexAndShards() throws Exception {
+        mockMvc.perform(get("/sitemap.xml"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(content().string(containsString("<sitemapindex")))
+                .andExpect(content().string(containsString("/sitemap-2.xml</loc>")))
+                .andExpect(content().string(not(containsString("/sitemap-3.xml"))));
+
+        mockMvc.perform(get("/sitemap-2.xml"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("<urlset")))
+                .andExpect(content().string(containsString("/category/vong-tay</loc>")));
+
+        mockMvc.perform(get("/sitemap-3.xml"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getSitemapGzip_ReturnsCompressedIndex() throws Exception {
+        byte[] body = mockMvc.perform(get("/sitemap.xml.gz"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).contains("<sitemapindex"));
+        }
+    }
+
+    @Test
+    void getSitemap_RegeneratedAfterCategoryWrite() throws Exception {
+        mockMvc.perform(get("/sitemap-2.xml"))
+                .andExpect(content().string(not(containsString("tuong-phat"))));
+
+        CategoryRequest request = new CategoryRequest();
+        request.setName("Tượng phật");
+        request.setSortOrder(2);
+        categoryService.create(request);
+
+        mockMvc.perform(get("/sitemap-2.xml"))
+                .andExpect(content().string(containsString("/category/tuong-phat</loc>")));
+    }
+}
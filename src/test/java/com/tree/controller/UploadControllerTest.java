@@ -0,0 +1,152 @@
+package com.tree.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "app.upload.dir=target/upload-controller-test")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UploadControllerTest {
+
+    private static final String DIGEST = "a".repeat(64);
+    private static final byte[] BYTES = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final String SVG = "<svg xmlns=\"http://www.w3.org/2000/svg\"><rect width=\"1\" height=\"1\"/></svg>";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${app.upload.dir}")
+    private String uploadDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path root = Paths.get(uploadDir);
+        Files.createDirectories(root.resolve("products"));
+        Files.createDirectories(root.resolve("sha256/logos"));
+        Files.write(root.resolve("products/photo.png"), BYTES);
+        Files.write(root.resolve("products/.upload-123.tmp"), BYTES);
+        Files.write(root.resolve("sha256/logos/" + DIGEST + ".png"), BYTES);
+        Files.writeString(root.resolve("products/icon.svg"), SVG);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(root.resolve("products/icon.svg.gz")))) {
+            out.write(SVG.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void getUpload_SendsFileWithValidators() throws Exception {
+        mockMvc.perform(get("/uploads/products/photo.png"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(BYTES))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, BYTES.length))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"a-" + Long.toHexString(lastModified("products/photo.png")) + "\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"));
+
+        mockMvc.perform(head("/uploads/products/photo.png"))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, BYTES.length))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getUpload_MatchingETag_ReturnsNotModified() throws Exception {
+        String eTag = mockMvc.perform(get("/uploads/products/photo.png"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/uploads/products/photo.png").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getUpload_ByteRanges() throws Exception {
+        mockMvc.perform(get("/uploads/products/photo.png").header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+
+        mockMvc.perform(get("/uploads/products/photo.png").header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("789"));
+
+        mockMvc.perform(get("/uploads/products/photo.png").header(HttpHeaders.RANGE, "bytes=10-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+
+        // Stale If-Range: the whole file instead of the range
+        mockMvc.perform(get("/uploads/products/photo.png")
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(BYTES));
+    }
+
+    @Test
+    void getUpload_PrefersPrecompressedSibling() throws Exception {
+        mockMvc.perform(get("/uploads/products/icon.svg").header(HttpHeaders.ACCEPT_ENCODING, "br;q=0, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/svg+xml"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(HttpHeaders.ETAG, containsString("-gzip\"")))
+                .andExpect(header().string("Content-Security-Policy", containsString("sandbox")));
+
+        String identity = mockMvc.perform(get("/uploads/products/icon.svg"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(SVG, identity);
+    }
+
+    @Test
+    void getUpload_ContentAddressedFile_IsImmutable() throws Exception {
+        mockMvc.perform(get("/uploads/sha256/logos/" + DIGEST + ".png"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + DIGEST + ".png\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    void getUpload_MissingHiddenOrDirectory_IsNotFound() throws Exception {
+        mockMvc.perform(get("/uploads/products/missing.png")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/uploads/products/.upload-123.tmp")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/uploads/products")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void parseRange_IgnoresMalformedAndMultiRanges() {
+        assertNull(UploadController.ByteRange.parse("bytes=0-1,4-5", 10));
+        assertNull(UploadController.ByteRange.parse("items=0-1", 10));
+        assertNull(UploadController.ByteRange.parse("bytes=5-2", 10));
+        assertEquals(new UploadController.ByteRange(5, 9), UploadController.ByteRange.parse("bytes=5-100", 10));
+        assertEquals(UploadController.ByteRange.UNSATISFIABLE, UploadController.ByteRange.parse("bytes=-0", 10));
+    }
+
+    private long lastModified(String path) throws IOException {
+        return Files.getLastModifiedTime(Paths.get(uploadDir, path)).toMillis();
+    }
+}
@@ -0,0 +1,60 @@
+package com.tree.diagnostics;
+
+import com.tree.dto.RouteQueryStatsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CorrelationIdFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RouteStatistics routeStatistics;
+
+    @BeforeEach
+    void setUp() {
+        routeStatistics.reset();
+    }
+
+    @Test
+    void request_EchoesOrGeneratesCorrelationId() throws Exception {
+        mockMvc.perform(get("/api/public/categories").header(CorrelationIdFilter.HEADER, "abc-123"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CorrelationIdFilter.HEADER, "abc-123"));
+
+        String generated = mockMvc.perform(get("/api/public/categories"))
+                .andReturn().getResponse().getHeader(CorrelationIdFilter.HEADER);
+        assertNotNull(generated);
+        assertNotEquals("abc-123", generated);
+    }
+
+    @Test
+    void request_RecordsJdbcWorkPerRoute() throws Exception {
+        mockMvc.perform(get("/api/public/products")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/public/products")).andExpect(status().isOk());
+
+        RouteQueryStatsResponse products = routeStatistics.top(50).stream()
+                .filter(stats -> stats.getRoute().equals("/api/public/products"))
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals("GET", products.getMethod());
+        assertEquals(2, products.getRequests());
+        assertTrue(products.getStatements() >= 2);
+        assertTrue(products.getRows() > 0);
+    }
+}
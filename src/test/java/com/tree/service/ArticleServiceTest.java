@@ -1,7 +1,10 @@
 package com.tree.service;
 
 import com.tree.dto.article.ArticleRequest;
+import com.tree.dto.CursorPageResponse;
+import com.tree.dto.PageResponse;
 import com.tree.dto.article.ArticleResponse;
+import com.tree.dto.article.ArticleSummaryResponse;
 import com.tree.entity.Article;
 import com.tree.entity.Category;
 import com.tree.entity.User;
@@ -9,13 +12,27 @@ import com.tree.exception.ResourceNotFoundException;
 import com.tree.repository.ArticleRepository;
 import com.tree.repository.CategoryRepository;
 import com.tree.repository.UserRepository;
+import com.tree.util.MarkdownUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -37,11 +54,25 @@ class ArticleServiceTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ViewCountService viewCountService;
+
+    @Autowired
+    private ArticlePageCache articlePageCache;
+
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private ArticleRenderService articleRenderService;
+
     private User testUser;
     private Category testCategory;
 
     @BeforeEach
     void setUp() {
+        articlePageCache.invalidateAll();
+        countCache.invalidate(CountCache.ARTICLES);
         articleRepository.deleteAll();
         categoryRepository.deleteAll();
         userRepository.deleteAll();
@@ -75,7 +106,87 @@ class ArticleServiceTest {
         assertEquals("Test Article", response.getTitle());
         assertEquals("test-article", response.getSlug());
         assertNotNull(response.getContentHtml());
-        assertTrue(response.getContentHtml().contains("<h1>"));
+        assertTrue(response.getContentHtml().contains("<h1 id=\"hello-world\">Hello World</h1>"));
+    }
+
+    @Test
+    void createArticle_StoresContentScores() {
+        ArticleRequest request = new ArticleRequest();
+        request.setTitle("Trầm hương tự nhiên");
+        request.setFocusKeyword("trầm hương");
+        request.setContent("Trầm hương tự nhiên. " + "Gỗ thơm quý hiếm. ".repeat(300));
+
+        ArticleResponse response = articleService.create(request, testUser.getId());
+
+        assertEquals(6, response.getReadingTime());
+        assertTrue(response.getSeoScore() > 0);
+        assertTrue(response.getReadabilityScore() > 0);
+    }
+
+    @Test
+    void createAndDelete_MaintainCategoryArticleCount() {
+        ArticleRequest request = new ArticleRequest();
+        request.setTitle("Counted Article");
+        request.setContent("Content");
+        request.setCategoryId(testCategory.getId().toString());
+
+        ArticleResponse response = articleService.create(request, testUser.getId());
+
+        assertEquals(1, response.getCategory().getArticleCount());
+        assertEquals(1, categoryRepository.findById(testCategory.getId()).orElseThrow().getArticleCount());
+
+        articleService.delete(UUID.fromString(response.getId()));
+
+        assertEquals(0, categoryRepository.findById(testCategory.getId()).orElseThrow().getArticleCount());
+    }
+
+    @Test
+    void updateTrashedArticle_MovingCategory_LeavesCountsToRestore() {
+        Category otherCategory = categoryRepository.save(Category.builder()
+                .name("Other Category")
+                .slug("other-category")
+                .active(true)
+                .sortOrder(2)
+                .build());
+        ArticleRequest request = new ArticleRequest();
+        request.setTitle("Trashed Article");
+        request.setContent("Content");
+        request.setCategoryId(testCategory.getId().toString());
+        UUID id = UUID.fromString(articleService.create(request, testUser.getId()).getId());
+        articleService.delete(id);
+
+        request.setCategoryId(otherCategory.getId().toString());
+        articleService.update(id, request);
+
+        assertEquals(0, categoryRepository.findById(testCategory.getId()).orElseThrow().getArticleCount());
+        assertEquals(0, categoryRepository.findById(otherCategory.getId()).orElseThrow().getArticleCount());
+
+        articleService.restore(id);
+
+        assertEquals(0, categoryRepository.findById(testCategory.getId()).orElseThrow().getArticleCount());
+        assertEquals(1, categoryRepository.findById(otherCategory.getId()).orElseThrow().getArticleCount());
+    }
+
+    @Test
+    void concurrentCreates_KeepCategoryArticleCountExact() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ArticleResponse>> created = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                ArticleRequest request = new ArticleRequest();
+                request.setTitle("Concurrent Article " + i);
+                request.setContent("Content");
+                request.setCategoryId(testCategory.getId().toString());
+                created.add(pool.submit(() -> articleService.create(request, testUser.getId())));
+            }
+            for (Future<ArticleResponse> future : created) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(12, categoryRepository.findById(testCategory.getId()).orElseThrow().getArticleCount());
     }
 
     @Test
@@ -89,6 +200,98 @@ class ArticleServiceTest {
         assertEquals("bai-viet-tieng-viet", response.getSlug());
     }
 
+    @Test
+    void getPublishedArticles_ReturnsSummariesWithCategory() {
+        articleRepository.save(Article.builder()
+                .title("Listed").slug("listed").summary("Short").content("Long content")
+                .status(Article.Status.PUBLISHED).viewCount(0L).readingTime(3)
+                .category(testCategory).author(testUser).build());
+        articleRepository.save(Article.builder()
+                .title("Draft").slug("draft").content("Content")
+                .status(Article.Status.DRAFT).viewCount(0L)
+                .author(testUser).build());
+
+        PageResponse<ArticleSummaryResponse> page = articleService.getPublishedArticles(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertEquals(1, page.getTotalElements());
+        ArticleSummaryResponse summary = page.getContent().get(0);
+        assertEquals("listed", summary.getSlug());
+        assertEquals("Short", summary.getSummary());
+        assertEquals(3, summary.getReadingTime());
+        assertEquals("Test Category", summary.getCategory().getName());
+        assertEquals("PUBLISHED", summary.getStatus());
+    }
+
+    @Test
+    void getPublishedArticles_CachesTotalUntilArticleWrite() {
+        for (int i = 1; i <= 3; i++) {
+            articleRepository.save(Article.builder()
+                    .title("Counted " + i).slug("counted-" + i).content("Content")
+                    .status(Article.Status.PUBLISHED).viewCount(0L)
+                    .author(testUser).build());
+        }
+        PageRequest firstPage = PageRequest.of(0, 2);
+
+        assertEquals(3L, articleService.getPublishedArticles(firstPage).getTotalElements());
+
+        // Written behind the service: the cached total is served
+        articleRepository.save(Article.builder()
+                .title("Hidden").slug("hidden").content("Content")
+                .status(Article.Status.PUBLISHED).viewCount(0L)
+                .author(testUser).build());
+        assertEquals(3L, articleService.getPublishedArticles(firstPage).getTotalElements());
+
+        ArticleRequest request = new ArticleRequest();
+        request.setTitle("Through Service");
+        request.setContent("Content");
+        request.setStatus("PUBLISHED");
+        articleService.create(request, testUser.getId());
+
+        assertEquals(5L, articleService.getPublishedArticles(firstPage).getTotalElements());
+    }
+
+    @Test
+    void getPublishedArticles_WithoutTotal_SkipsCount() {
+        articleRepository.save(Article.builder()
+                .title("Only").slug("only").content("Content")
+                .status(Article.Status.PUBLISHED).viewCount(0L)
+                .author(testUser).build());
+
+        PageResponse<ArticleSummaryResponse> page = articleService.getPublishedArticles(PageRequest.of(0, 10), false);
+
+        assertEquals(1, page.getContent().size());
+        assertNull(page.getTotalElements());
+        assertNull(page.getTotalPages());
+        assertTrue(page.isLast());
+    }
+
+    @Test
+    void getPublishedFeed_PagesByCursorWithoutGapsOrDuplicates() {
+        for (int i = 1; i <= 5; i++) {
+            articleRepository.save(Article.builder()
+                    .title("Feed " + i).slug("feed-" + i).content("Content")
+                    .status(Article.Status.PUBLISHED).viewCount(0L)
+                    .author(testUser).build());
+        }
+
+        CursorPageResponse<ArticleSummaryResponse> first = articleService.getPublishedFeed(null, 2);
+        CursorPageResponse<ArticleSummaryResponse> second = articleService.getPublishedFeed(first.getNextCursor(), 2);
+        CursorPageResponse<ArticleSummaryResponse> last = articleService.getPublishedFeed(second.getNextCursor(), 2);
+
+        assertTrue(first.isHasNext());
+        assertTrue(second.isHasNext());
+        assertFalse(last.isHasNext());
+        assertNull(last.getNextCursor());
+        assertEquals(1, last.getContent().size());
+
+        Set<String> slugs = new HashSet<>();
+        Stream.of(first, second, last)
+                .flatMap(page -> page.getContent().stream())
+                .forEach(summary -> assertTrue(slugs.add(summary.getSlug())));
+        assertEquals(5, slugs.size());
+    }
+
     @Test
     void getBySlug_IncrementsViewCount() {
         Article article = articleRepository.save(Article.builder()
@@ -101,6 +304,42 @@ class ArticleServiceTest {
         assertEquals(1L, response.getViewCount());
     }
 
+    @Test
+    void getBySlug_FlushesBufferedViewCount() {
+        Article article = articleRepository.save(Article.builder()
+                .title("Buffered").slug("buffered").content("Content")
+                .status(Article.Status.PUBLISHED).viewCount(5L)
+                .author(testUser).build());
+
+        articleService.getBySlug("buffered");
+        articleService.getBySlug("buffered");
+        viewCountService.flush();
+
+        assertEquals(7L, articleRepository.findById(article.getId()).orElseThrow().getViewCount());
+        assertEquals(8L, articleService.getBySlug("buffered").getViewCount());
+    }
+
+    @Test
+    void getBySlug_ServesCachedPageUntilInvalidated() {
+        Article article = articleRepository.save(Article.builder()
+                .title("Cached").slug("cached").content("Content")
+                .status(Article.Status.PUBLISHED).viewCount(0L)
+                .author(testUser).build());
+
+        articleService.getBySlug("cached");
+        article.setTitle("Changed behind the cache");
+        articleRepository.save(article);
+
+        assertEquals("Cached", articleService.getBySlug("cached").getTitle());
+
+        ArticleRequest request = new ArticleRequest();
+        request.setTitle("Updated Through Service");
+        request.setContent("Content");
+        articleService.update(article.getId(), request);
+
+        assertEquals("Updated Through Service", articleService.getBySlug("cached").getTitle());
+    }
+
     @Test
     void getBySlug_NotFound_ThrowsException() {
         assertThrows(ResourceNotFoundException.class, () -> {
@@ -126,6 +365,49 @@ class ArticleServiceTest {
         assertEquals("PUBLISHED", response.getStatus());
     }
 
+    @Test
+    void updateArticle_UnchangedMarkdown_KeepsStoredHtml() {
+        ArticleRequest request = new ArticleRequest();
+        request.setTitle("Rendered Once");
+        request.setContent("# Heading\n\nBody");
+        UUID id = UUID.fromString(articleService.create(request, testUser.getId()).getId());
+
+        Article stored = articleRepository.findById(id).orElseThrow();
+        assertEquals(MarkdownUtil.RENDER_VERSION, stored.getRenderVersion());
+        assertEquals(ArticleRenderService.contentHash("# Heading\n\nBody"), stored.getContentHash());
+        assertEquals("[{\"id\":\"heading\",\"text\":\"Heading\",\"level\":1,\"children\":[]}]",
+                stored.getTableOfContents());
+        // Marker HTML survives only if the update does not render again
+        stored.setContentHtml("<p>marker</p>");
+        articleRepository.save(stored);
+
+        request.setTitle("Renamed");
+        assertEquals("<p>marker</p>", articleService.update(id, request).getContentHtml());
+
+        request.setContent("# Changed");
+        assertTrue(articleService.update(id, request).getContentHtml().contains("<h1 id=\"changed\">Changed</h1>"));
+    }
+
+    @Test
+    void rerenderStale_RerendersOlderRendererVersions() {
+        ArticleRequest request = new ArticleRequest();
+        request.setTitle("Stale Render");
+        request.setContent("# Fresh");
+        UUID id = UUID.fromString(articleService.create(request, testUser.getId()).getId());
+
+        Article stored = articleRepository.findById(id).orElseThrow();
+        stored.setContentHtml("<p>old renderer</p>");
+        stored.setRenderVersion(MarkdownUtil.RENDER_VERSION - 1);
+        articleRepository.save(stored);
+
+        assertEquals(1, articleRenderService.rerenderStale());
+        assertEquals(0, articleRenderService.rerenderStale());
+
+        Article rerendered = articleRepository.findById(id).orElseThrow();
+        assertTrue(rerendered.getContentHtml().contains("<h1 id=\"fresh\">Fresh</h1>"));
+        assertEquals(MarkdownUtil.RENDER_VERSION, rerendered.getRenderVersion());
+    }
+
     @Test
     void deleteArticle_Success() {
         Article article = articleRepository.save(Article.builder()
@@ -0,0 +1,134 @@
+package com.tree.service;
+
+import com.tree.exception.BadRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileStorageServiceTest {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    // SHA-256 of PNG_SIGNATURE + "fake png bytes"
+    private static final String DIGEST = "d77c88a4915c4b5c0c469d49eb60edcb4a40a5e94c998ef6a28c3be9109eef2e";
+
+    @TempDir
+    Path uploadDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FileStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        ImageProcessingService images = new ImageProcessingService(Runnable::run, meterRegistry,
+                uploadDir.toString(), List.of(320), 0.8f, 40_000_000L, false);
+        service = new FileStorageService(meterRegistry, images);
+        ReflectionTestUtils.setField(service, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(service, "maxFileSize", 1024L * 1024);
+        ReflectionTestUtils.setField(service, "contentAddressed", true);
+    }
+
+    @Test
+    void storeFile_NamesFileBySha256() throws IOException {
+        String url = service.storeFile(png("banner.PNG", "fake png bytes"), "banners");
+
+        // Extension is lower-cased so the same bytes always get the same name
+        assertEquals("/uploads/sha256/banners/" + DIGEST + ".png", url);
+        assertArrayEquals(pngBytes("fake png bytes"), Files.readAllBytes(uploadDir.resolve("sha256/banners/" + DIGEST + ".png")));
+    }
+
+    @Test
+    void storeFile_DuplicateContent_ReturnsExistingUrl() throws IOException {
+        String first = service.storeFile(png("a.png", "same bytes"), "products");
+        String second = service.storeFile(png("b.png", "same bytes"), "products");
+        String other = service.storeFile(png("c.png", "other bytes"), "products");
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        try (var files = Files.list(uploadDir.resolve("sha256/products"))) {
+            // Two stored files, no temp files left behind
+            assertEquals(2, files.count());
+        }
+        assertEquals(1.0, meterRegistry.get("uploads.store").tag("outcome", "duplicate").timer().count());
+    }
+
+    @Test
+    void deleteFile_KeepsContentAddressedFiles() {
+        String url = service.storeFile(png("a.png", "shared bytes"), "articles");
+
+        assertFalse(service.deleteFile(url));
+        assertTrue(service.fileExists(url));
+    }
+
+    @Test
+    void storeFile_WithoutContentAddressing_UsesRandomNames() {
+        ReflectionTestUtils.setField(service, "contentAddressed", false);
+
+        String first = service.storeFile(png("a.png", "same bytes"), "products");
+        String second = service.storeFile(png("a.png", "same bytes"), "products");
+
+        assertNotEquals(first, second);
+        assertTrue(first.startsWith("/uploads/products/"));
+        assertTrue(service.deleteFile(first));
+    }
+
+    @Test
+    void storeFile_ContentNotMatchingType_RejectedBeforeWriting() {
+        MockMultipartFile disguised = new MockMultipartFile("file", "photo.png", "image/png",
+                "MZ not really a png".getBytes(StandardCharsets.UTF_8));
+        MockMultipartFile renamed = new MockMultipartFile("file", "photo.jpg", "image/jpeg", pngBytes("png bytes"));
+
+        assertThrows(BadRequestException.class, () -> service.storeFile(disguised, "products"));
+        assertThrows(BadRequestException.class, () -> service.storeFile(renamed, "products"));
+        // Sniffed from the first bytes: not even a temp file was created
+        assertFalse(Files.exists(uploadDir.resolve("sha256/products")));
+        assertEquals(2.0, meterRegistry.get("uploads.rejected").tag("reason", "content_mismatch").counter().count());
+    }
+
+    @Test
+    void storeFile_Svg_IsSanitised() throws IOException {
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" onload=\"alert(1)\">"
+                + "<script>alert(2)</script><rect width=\"1\" height=\"1\"/></svg>";
+
+        String url = service.storeFile(new MockMultipartFile("file", "logo.svg", "image/svg+xml",
+                svg.getBytes(StandardCharsets.UTF_8)), "logos");
+
+        String stored = Files.readString(uploadDir.resolve(url.substring("/uploads/".length())));
+        assertTrue(stored.contains("<rect"));
+        assertFalse(stored.contains("script"));
+        assertFalse(stored.contains("onload"));
+        assertTrue(Files.exists(uploadDir.resolve(url.substring("/uploads/".length()) + ".gz")));
+    }
+
+    @Test
+    void storeFile_InvalidSvg_Rejected() {
+        MockMultipartFile html = new MockMultipartFile("file", "page.svg", "image/svg+xml",
+                "<html><body>hi</body></html>".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BadRequestException.class, () -> service.storeFile(html, "logos"));
+        assertEquals(1.0, meterRegistry.get("uploads.rejected").tag("reason", "invalid_svg").counter().count());
+    }
+
+    private static MockMultipartFile png(String name, String content) {
+        return new MockMultipartFile("file", name, "image/png", pngBytes(content));
+    }
+
+    // A PNG signature is all the sniffing looks at
+    private static byte[] pngBytes(String content) {
+        byte[] body = content.getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = Arrays.copyOf(PNG_SIGNATURE, PNG_SIGNATURE.length + body.length);
+        System.arraycopy(body, 0, bytes, PNG_SIGNATURE.length, body.length);
+        return bytes;
+    }
+}
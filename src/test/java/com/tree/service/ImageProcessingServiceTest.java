@@ -0,0 +1,165 @@
+package com.tree.service;
+
+import com.tree.dto.upload.UploadResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageProcessingServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ImageProcessingService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(uploadDir.resolve("products"));
+        // Runs derivatives inline; WebP off so the result does not depend on the native encoder
+        service = new ImageProcessingService(Runnable::run, meterRegistry, uploadDir.toString(),
+                List.of(320, 640, 1280), 0.8f, 40_000_000L, false);
+    }
+
+    @Test
+    void process_WritesSmallerWidthVariants() throws IOException {
+        image("products/photo.jpg", 1000, 500, "jpg");
+
+        UploadResponse response = service.process("/uploads/products/photo.jpg");
+
+        assertEquals(1000, response.getWidth());
+        assertEquals(500, response.getHeight());
+        assertEquals(List.of("/uploads/products/photo-640w.jpg", "/uploads/products/photo-320w.jpg"),
+                response.getVariants().stream().map(UploadResponse.Variant::getUrl).toList());
+
+        BufferedImage variant = ImageIO.read(uploadDir.resolve("products/photo-320w.jpg").toFile());
+        assertEquals(320, variant.getWidth());
+        assertEquals(160, variant.getHeight());
+        assertEquals(2.0, meterRegistry.counter("images.variants", "format", "jpeg").count());
+    }
+
+    @Test
+    void process_RotatedJpeg_AppliesExifOrientation() throws IOException {
+        // Stored landscape, left half red; orientation 6 shows it turned 90 degrees clockwise
+        BufferedImage stored = new BufferedImage(800, 400, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = stored.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 400, 400);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(400, 0, 400, 400);
+        graphics.dispose();
+        Path file = uploadDir.resolve("products/phone.jpg");
+        ImageIO.write(stored, "jpg", file.toFile());
+        withOrientation(file, 6);
+
+        UploadResponse response = service.process("/uploads/products/phone.jpg");
+
+        assertEquals(400, response.getWidth());
+        assertEquals(800, response.getHeight());
+        assertEquals(List.of("/uploads/products/phone-320w.jpg"),
+                response.getVariants().stream().map(UploadResponse.Variant::getUrl).toList());
+
+        BufferedImage variant = ImageIO.read(uploadDir.resolve("products/phone-320w.jpg").toFile());
+        assertEquals(320, variant.getWidth());
+        assertEquals(640, variant.getHeight());
+        // The stored left edge is now on top
+        assertTrue(new Color(variant.getRGB(160, 100)).getRed() > 200);
+        assertTrue(new Color(variant.getRGB(160, 540)).getBlue() > 200);
+    }
+
+    @Test
+    void process_SmallImage_IsNeverUpscaled() throws IOException {
+        image("products/logo.png", 300, 300, "png");
+
+        UploadResponse response = service.process("/uploads/products/logo.png");
+
+        assertEquals(300, response.getWidth());
+        assertTrue(response.getVariants().isEmpty());
+    }
+
+    @Test
+    void process_VectorAndExternalFiles_AreDescribedOnly() throws IOException {
+        Files.writeString(uploadDir.resolve("products/icon.svg"), "<svg xmlns=\"http://www.w3.org/2000/svg\"/>");
+
+        UploadResponse response = service.process("/uploads/products/icon.svg");
+
+        assertEquals("icon.svg", response.getFilename());
+        assertNull(response.getWidth());
+        assertNull(response.getVariants());
+        assertTrue(service.dimensionsOf("https://cdn.example.com/a.jpg").isEmpty());
+        assertTrue(service.dimensionsOf("/uploads/../secret.jpg").isEmpty());
+    }
+
+    @Test
+    void process_OversizedImage_SkipsDerivatives() throws IOException {
+        service = new ImageProcessingService(Runnable::run, meterRegistry, uploadDir.toString(),
+                List.of(320), 0.8f, 100_000L, false);
+        image("products/huge.png", 1000, 1000, "png");
+
+        UploadResponse response = service.process("/uploads/products/huge.png");
+
+        assertEquals(1000, response.getWidth());
+        assertTrue(response.getVariants().isEmpty());
+        assertFalse(Files.exists(uploadDir.resolve("products/huge-320w.png")));
+    }
+
+    @Test
+    void deleteVariants_RemovesDerivativesButNotOriginal() throws IOException {
+        image("products/photo.png", 800, 400, "png");
+        image("products/photo-2.png", 800, 400, "png");
+        service.process("/uploads/products/photo.png");
+        assertTrue(Files.exists(uploadDir.resolve("products/photo-640w.png")));
+
+        service.deleteVariants("/uploads/products/photo.png");
+
+        assertFalse(Files.exists(uploadDir.resolve("products/photo-640w.png")));
+        assertFalse(Files.exists(uploadDir.resolve("products/photo-320w.png")));
+        assertTrue(Files.exists(uploadDir.resolve("products/photo.png")));
+        assertTrue(Files.exists(uploadDir.resolve("products/photo-2.png")));
+    }
+
+    @Test
+    void dimensionsOf_ReadsHeaderOfLocalUpload() throws IOException {
+        image("products/photo.png", 64, 48, "png");
+
+        assertEquals(new ImageProcessingService.Dimensions(64, 48),
+                service.dimensionsOf("/uploads/products/photo.png").orElseThrow());
+    }
+
+    // Insert a big-endian APP1 Exif segment with only the orientation tag right after SOI
+    private static void withOrientation(Path jpeg, int orientation) throws IOException {
+        ByteBuffer exif = ByteBuffer.allocate(36)
+                .putShort((short) 0xFFE1).putShort((short) 34)
+                .put("Exif\0\0MM".getBytes(StandardCharsets.US_ASCII)).putShort((short) 0x2A).putInt(8)
+                .putShort((short) 1)
+                .putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0)
+                .putInt(0);
+        byte[] original = Files.readAllBytes(jpeg);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(original, 0, 2);
+        out.write(exif.array());
+        out.write(original, 2, original.length - 2);
+        Files.write(jpeg, out.toByteArray());
+    }
+
+    private void image(String path, int width, int height, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height,
+                "png".equals(format) ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        ImageIO.write(image, format, uploadDir.resolve(path).toFile());
+    }
+}
@@ -0,0 +1,75 @@
+package com.tree.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tree.support.HttpStubServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientException;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexNowServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpStubServer stub;
+    private IndexNowService service;
+
+    @BeforeEach
+    void setUp() {
+        stub = new HttpStubServer("/indexnow");
+        service = new IndexNowService(true, "abc123", "https://example.com", stub.url("/indexnow"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void submit_PostsUrlListWithKey() throws Exception {
+        service.submit(List.of(service.toUrl("/blog/a"), service.toUrl("/blog/b")));
+
+        assertEquals(1, stub.requests().size());
+        JsonNode payload = objectMapper.readTree(stub.requests().get(0));
+        assertEquals("example.com", payload.get("host").asText());
+        assertEquals("abc123", payload.get("key").asText());
+        assertEquals("https://example.com/abc123.txt", payload.get("keyLocation").asText());
+        assertEquals(2, payload.get("urlList").size());
+        assertEquals("https://example.com/blog/a", payload.get("urlList").get(0).asText());
+    }
+
+    @Test
+    void submit_SplitsAtProtocolLimit() throws Exception {
+        List<String> urls = IntStream.range(0, IndexNowService.MAX_URLS_PER_REQUEST + 1)
+                .mapToObj(i -> "https://example.com/blog/" + i)
+                .toList();
+
+        service.submit(urls);
+
+        assertEquals(2, stub.requests().size());
+        assertEquals(IndexNowService.MAX_URLS_PER_REQUEST,
+                objectMapper.readTree(stub.requests().get(0)).get("urlList").size());
+        assertEquals(1, objectMapper.readTree(stub.requests().get(1)).get("urlList").size());
+    }
+
+    @Test
+    void submit_ThrowsOnRejectedRequest() {
+        stub.respondWith(429);
+
+        assertThrows(RestClientException.class, () -> service.submit(List.of("https://example.com/blog/a")));
+    }
+
+    @Test
+    void submit_SkipsWhenDisabled() {
+        IndexNowService disabled = new IndexNowService(false, "abc123", "https://example.com", stub.url("/indexnow"));
+
+        disabled.submit(List.of("https://example.com/blog/a"));
+
+        assertTrue(stub.requests().isEmpty());
+    }
+}
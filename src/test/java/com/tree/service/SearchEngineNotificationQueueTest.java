@@ -0,0 +1,119 @@
+package com.tree.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tree.entity.SearchEngineNotification;
+import com.tree.repository.SearchEngineNotificationRepository;
+import com.tree.support.HttpStubServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SearchEngineNotificationQueueTest {
+
+    private static final HttpStubServer STUB = new HttpStubServer("/indexnow");
+
+    @DynamicPropertySource
+    static void indexNowProperties(DynamicPropertyRegistry registry) {
+        registry.add("indexnow.enabled", () -> "true");
+        registry.add("indexnow.key", () -> "abc123");
+        registry.add("indexnow.endpoint", () -> STUB.url("/indexnow"));
+        registry.add("app.notifications.coalesce-window", () -> "PT0S");
+        // Flush only when the test asks for it
+        registry.add("app.notifications.flush-interval-ms", () -> "3600000");
+    }
+
+    @Autowired
+    private SearchEngineNotificationQueue queue;
+
+    @Autowired
+    private SearchEngineNotificationRepository repository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        STUB.reset();
+    }
+
+    @Test
+    void enqueue_CoalescesRepeatedSavesIntoOneBatch() throws Exception {
+        queue.articlePublished("a");
+        queue.articlePublished("a");
+        queue.articlePublished("b");
+
+        assertEquals(2, repository.count());
+
+        queue.flush();
+
+        assertEquals(1, STUB.requests().size());
+        assertEquals(2, objectMapper.readTree(STUB.requests().get(0)).get("urlList").size());
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void enqueue_ConcurrentFirstSaves_KeepOneRow() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> saves = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                saves.add(pool.submit(() -> {
+                    start.await();
+                    queue.articlePublished("same");
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> save : saves) {
+                // A lost insert race must not fail the content save
+                save.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void flush_ReschedulesFailuresWithBackoff() {
+        STUB.respondWith(503);
+        queue.articlePublished("a");
+
+        queue.flush();
+
+        List<SearchEngineNotification> pending = repository.findAll();
+        assertEquals(1, pending.size());
+        assertEquals(1, pending.get(0).getAttempts());
+        assertNotNull(pending.get(0).getLastError());
+        assertTrue(pending.get(0).getNextAttemptAt().isAfter(LocalDateTime.now()));
+
+        // Not due yet: nothing is sent again
+        queue.flush();
+        assertEquals(1, STUB.requests().size());
+    }
+}
@@ -0,0 +1,85 @@
+package com.tree.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettingsSnapshotCacheTest {
+
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private final AtomicReference<String> row = new AtomicReference<>("first");
+    private final SettingsSnapshotCache<String> cache =
+            new SettingsSnapshotCache<>(row::get, new ObjectMapper(), transactionManager);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void refreshAfterCommit_ReloadsInNewTransactionOnceCommitted() {
+        SettingsSnapshotCache.Snapshot<String> before = cache.get();
+
+        TransactionSynchronizationManager.initSynchronization();
+        row.set("second");
+        cache.refreshAfterCommit();
+        // Not before the saving transaction commits
+        assertSame(before, cache.get());
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+
+        assertEquals("second", cache.get().value());
+        assertNotEquals(before.eTag(), cache.get().eTag());
+        // The reload must not run on the committed transaction's still-bound EntityManager
+        assertEquals(2, transactionManager.definitions.size());
+        for (TransactionDefinition definition : transactionManager.definitions) {
+            assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getPropagationBehavior());
+            assertTrue(definition.isReadOnly());
+        }
+        assertEquals(2, transactionManager.commits);
+    }
+
+    @Test
+    void refreshAfterCommit_WithoutTransaction_ReloadsImmediately() {
+        cache.get();
+        row.set("second");
+
+        cache.refreshAfterCommit();
+
+        assertEquals("second", cache.get().value());
+    }
+
+    private static class RecordingTransactionManager implements PlatformTransactionManager {
+        final List<TransactionDefinition> definitions = new ArrayList<>();
+        int commits;
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            definitions.add(definition);
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            commits++;
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
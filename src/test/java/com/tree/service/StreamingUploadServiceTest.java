@@ -0,0 +1,177 @@
+package com.tree.service;
+
+import com.tree.dto.upload.UploadResult;
+import com.tree.exception.BadRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingUploadServiceTest {
+
+    private static final String BOUNDARY = "----upload-test-boundary";
+    // PNG signature as ISO-8859-1 text, so the parts below sniff as PNG
+    private static final String PNG = "\u0089PNG\r\n\u001A\n";
+
+    @TempDir
+    Path uploadDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private FileStorageService fileStorageService;
+    private ImageProcessingService images;
+
+    @BeforeEach
+    void setUp() {
+        images = new ImageProcessingService(Runnable::run, meterRegistry,
+                uploadDir.toString(), List.of(320), 0.8f, 40_000_000L, false);
+        fileStorageService = new FileStorageService(meterRegistry, images);
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(fileStorageService, "maxFileSize", 32L);
+        ReflectionTestUtils.setField(fileStorageService, "contentAddressed", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void storeAll_ReportsEachFileSeparately() throws IOException {
+        MockHttpServletRequest request = multipart(
+                part("caption", null, null, "ignored form field"),
+                part("files", "a.png", "image/png", PNG + "first image"),
+                part("files", "run.exe", "application/octet-stream", "MZ"),
+                part("files", "big.png", "image/png", PNG + "x".repeat(33)),
+                part("files", "b.png", "image/png", PNG + "second image"));
+
+        List<UploadResult> results = service(10).storeAll(request, "products");
+
+        assertEquals(List.of("a.png", "run.exe", "big.png", "b.png"),
+                results.stream().map(UploadResult::getFilename).toList());
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(0).getFile().getUrl().startsWith("/uploads/sha256/products/"));
+        assertTrue(results.get(1).getError().startsWith("File type not allowed"));
+        assertTrue(results.get(2).getError().startsWith("File size exceeds"));
+        assertTrue(results.get(3).isSuccess());
+
+        try (var files = Files.list(uploadDir.resolve("sha256/products"))) {
+            // The two stored files only: rejected parts leave no temp files behind
+            assertEquals(2, files.count());
+        }
+        assertEquals(2.0, meterRegistry.get("uploads.stream.files").tag("outcome", "stored").counter().count());
+        assertEquals(2.0, meterRegistry.get("uploads.stream.files").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void storeAll_StopsReadingAfterMaxFiles() throws IOException {
+        MockHttpServletRequest request = multipart(
+                part("files", "a.png", "image/png", PNG + "one"),
+                part("files", "b.png", "image/png", PNG + "two"),
+                part("files", "c.png", "image/png", PNG + "three"));
+
+        List<UploadResult> results = service(2).storeAll(request, "products");
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(1).isSuccess());
+        assertFalse(results.get(2).isSuccess());
+        assertEquals("Too many files: at most 2 per request", results.get(2).getError());
+    }
+
+    @Test
+    void storeAll_BodyBreaksOff_ReturnsResultsSoFar() throws IOException {
+        String first = part("files", "a.png", "image/png", PNG + "one");
+        String second = part("files", "b.png", "image/png", PNG + "two");
+        // Cut inside the second part, without the closing boundary: a client that went away
+        byte[] body = (first + second.substring(0, second.length() - 4)).getBytes(StandardCharsets.ISO_8859_1);
+
+        List<UploadResult> results = service(10).storeAll(request(body), "products");
+
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.size() >= 2);
+        assertTrue(results.stream().skip(1).noneMatch(UploadResult::isSuccess));
+        assertTrue(results.get(results.size() - 1).getError().startsWith("Could not"));
+        try (var files = Files.list(uploadDir.resolve("sha256/products"))) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void storeAll_TooManyFormFields_StopsReading() throws IOException {
+        String[] parts = new String[12];
+        for (int i = 0; i < 11; i++) {
+            parts[i] = part("field" + i, null, null, "x");
+        }
+        parts[11] = part("files", "a.png", "image/png", PNG + "one");
+
+        List<UploadResult> results = service(10).storeAll(multipart(parts), "products");
+
+        assertEquals(1, results.size());
+        assertEquals("Too many form fields: at most 10 per request", results.get(0).getError());
+    }
+
+    @Test
+    void storeAll_RejectsInvalidFolderPerFile() throws IOException {
+        List<UploadResult> results = service(10).storeAll(
+                multipart(part("files", "a.png", "image/png", PNG + "one")), "..");
+
+        assertEquals("Invalid upload folder", results.get(0).getError());
+    }
+
+    @Test
+    void storeAll_RejectsNonMultipartRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/admin/upload/stream/products");
+        request.setContentType("application/json");
+        request.setContent("{}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BadRequestException.class, () -> service(10).storeAll(request, "products"));
+    }
+
+    private StreamingUploadService service(int maxFiles) {
+        return new StreamingUploadService(fileStorageService, images, executor, meterRegistry, maxFiles, 2);
+    }
+
+    private static String part(String field, String filename, String contentType, String content) {
+        StringBuilder part = new StringBuilder("--" + BOUNDARY + "\r\n")
+                .append("Content-Disposition: form-data; name=\"").append(field).append('"');
+        if (filename != null) {
+            part.append("; filename=\"").append(filename).append('"');
+        }
+        part.append("\r\n");
+        if (contentType != null) {
+            part.append("Content-Type: ").append(contentType).append("\r\n");
+        }
+        return part.append("\r\n").append(content).append("\r\n").toString();
+    }
+
+    private static MockHttpServletRequest multipart(String... parts) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (String part : parts) {
+            body.write(part.getBytes(StandardCharsets.ISO_8859_1));
+        }
+        body.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+
+        return request(body.toByteArray());
+    }
+
+    private static MockHttpServletRequest request(byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/admin/upload/stream/products");
+        request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+        request.setContent(body);
+        return request;
+    }
+}
@@ -0,0 +1,91 @@
+package com.tree.service.search;
+
+import com.tree.service.search.InvertedIndex.Document;
+import com.tree.service.search.InvertedIndex.Field;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    private static Document doc(UUID key, String title, String body) {
+        return Document.of(key, new Field(title, 3), new Field(body, 1));
+    }
+
+    @Test
+    void search_MatchesWithoutAccents() {
+        InvertedIndex index = new InvertedIndex();
+        UUID id = UUID.randomUUID();
+        index.put(doc(id, "Vòng tay trầm hương", "Đồ gỗ tự nhiên"));
+
+        assertEquals(List.of(id), index.search("tram huong", 0, 10).keys());
+        assertEquals(List.of(id), index.search("ĐỒ GỖ", 0, 10).keys());
+    }
+
+    @Test
+    void search_RequiresAllTerms() {
+        InvertedIndex index = new InvertedIndex();
+        UUID bracelet = UUID.randomUUID();
+        UUID statue = UUID.randomUUID();
+        index.put(doc(bracelet, "Vòng tay trầm hương", "gỗ"));
+        index.put(doc(statue, "Tượng phật", "trầm hương"));
+
+        InvertedIndex.Hits hits = index.search("vong tram", 0, 10);
+
+        assertEquals(List.of(bracelet), hits.keys());
+        assertEquals(1, hits.total());
+        assertTrue(index.search("tram khong-co", 0, 10).keys().isEmpty());
+    }
+
+    @Test
+    void search_RanksTitleMatchesFirstAndPages() {
+        InvertedIndex index = new InvertedIndex();
+        UUID inBody = UUID.randomUUID();
+        UUID inTitle = UUID.randomUUID();
+        index.put(doc(inBody, "Tinh dầu", "nhang trầm"));
+        index.put(doc(inTitle, "Nhang trầm", "tinh dầu"));
+
+        assertEquals(List.of(inTitle, inBody), index.search("nhang", 0, 10).keys());
+
+        InvertedIndex.Hits secondPage = index.search("nhang", 1, 1);
+        assertEquals(List.of(inBody), secondPage.keys());
+        assertEquals(2, secondPage.total());
+    }
+
+    @Test
+    void put_ReplacesAndRemoveDeletes() {
+        InvertedIndex index = new InvertedIndex();
+        UUID id = UUID.randomUUID();
+        index.put(doc(id, "Chuỗi hạt", "cũ"));
+        index.put(doc(id, "Vòng tay", "mới"));
+
+        assertTrue(index.search("chuoi", 0, 10).keys().isEmpty());
+        assertEquals(List.of(id), index.search("vong", 0, 10).keys());
+        assertEquals(1, index.size());
+
+        index.remove(id);
+
+        assertTrue(index.search("vong", 0, 10).keys().isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void compaction_KeepsLiveDocumentsSearchable() {
+        InvertedIndex index = new InvertedIndex();
+        UUID keep = UUID.randomUUID();
+        index.put(doc(keep, "Tượng gỗ", "giữ lại"));
+        // Enough re-indexing to trigger tombstone compaction several times
+        UUID churn = UUID.randomUUID();
+        for (int i = 0; i < 500; i++) {
+            index.put(doc(churn, "Tượng " + i, "bản " + i));
+        }
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(keep), index.search("giu lai", 0, 10).keys());
+        assertEquals(List.of(churn), index.search("499", 0, 10).keys());
+        assertEquals(2, index.search("tuong", 0, 10).total());
+    }
+}
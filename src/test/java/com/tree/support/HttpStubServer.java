@@ -0,0 +1,60 @@
+package com.tree.support;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP endpoint for outbound-call tests: records request bodies and
+ * answers with a configurable status.
+ */
+public class HttpStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger status = new AtomicInteger(200);
+
+    public HttpStubServer(String path) {
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        server.createContext(path, exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                requests.add(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    public String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    public List<String> requests() {
+        return requests;
+    }
+
+    public void respondWith(int statusCode) {
+        status.set(statusCode);
+    }
+
+    public void reset() {
+        requests.clear();
+        status.set(200);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
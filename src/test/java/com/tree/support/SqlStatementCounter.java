@@ -0,0 +1,36 @@
+package com.tree.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts JDBC statements prepared by Hibernate, for N+1 regression tests.
+ *
+ * Statistics are global to the SessionFactory, so keep scheduled writers quiet
+ * while measuring.
+ */
+public class SqlStatementCounter {
+
+    private final Statistics statistics;
+
+    public SqlStatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    public long count() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    public void assertAtMost(long expected, String what) {
+        long actual = count();
+        assertTrue(actual <= expected, what + ": expected at most " + expected + " SQL statements but was " + actual);
+    }
+}
@@ -0,0 +1,116 @@
+package com.tree.util;
+
+import com.tree.util.ContentAnalyzer.Analysis;
+import com.tree.util.ContentAnalyzer.Input;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentAnalyzerTest {
+
+    private static final String ARTICLE = """
+            # Trầm hương là gì
+
+            Trầm hương là một loại gỗ quý. Nó có mùi thơm đặc biệt! Bạn biết không?
+
+            ## Công dụng của trầm hương
+
+            - Xông nhà
+            - Làm vòng tay trầm hương
+
+            ```
+            code trầm hương
+            ```
+
+            Xem [trang này](https://example.com/tram-huong) và <b>đậm</b>.
+            """;
+
+    private static Analysis analyze(String content, String focusKeyword) {
+        return ContentAnalyzer.analyze(new Input(content, "Trầm hương là gì", "tram-huong-la-gi",
+                focusKeyword, null, "Tìm hiểu trầm hương"));
+    }
+
+    @Test
+    void analyze_CountsProseWordsAndSentences() {
+        Analysis analysis = analyze(ARTICLE, null);
+
+        // Code fences, link destinations and HTML tags are not prose
+        assertEquals(37, analysis.wordCount());
+        // Two headings, three sentences, two list items, the last paragraph
+        assertEquals(8, analysis.sentenceCount());
+        assertEquals(1, analysis.readingTime());
+    }
+
+    @Test
+    void analyze_MatchesMultiWordKeywordIgnoringCase() {
+        Analysis analysis = analyze(ARTICLE, "Trầm Hương");
+
+        assertEquals(4, analysis.keywordCount());
+        assertEquals(100.0 * 4 * 2 / 37, analysis.keywordDensity(), 1e-9);
+        assertFalse(analysis.seoIssues().contains("Focus keyword is not in a subheading"));
+        assertFalse(analysis.seoIssues().contains("Focus keyword is not in the slug"));
+    }
+
+    @Test
+    void analyze_KeywordDoesNotSpanSentences() {
+        assertEquals(0, analyze("Gỗ trầm. Hương thơm.", "trầm hương").keywordCount());
+        assertEquals(1, analyze("Gỗ trầm trầm hương thơm.", "trầm hương").keywordCount());
+    }
+
+    @Test
+    void analyze_QuotedHeadingCountsAsSubheading() {
+        Analysis analysis = analyze("> ## Công dụng của trầm hương\n>\n> - Xông nhà\n", "trầm hương");
+
+        assertEquals(7, analysis.wordCount());
+        assertEquals(2, analysis.sentenceCount());
+        assertFalse(analysis.seoIssues().contains("Content has no subheadings"));
+        assertFalse(analysis.seoIssues().contains("Focus keyword is not in a subheading"));
+    }
+
+    @Test
+    void analyze_DecomposedInputMatchesPrecomposedKeyword() {
+        String decomposed = java.text.Normalizer.normalize("Vòng tay trầm hương.", java.text.Normalizer.Form.NFD);
+
+        assertEquals(1, analyze(decomposed, "trầm hương").keywordCount());
+    }
+
+    @Test
+    void analyze_ReadingTimeUsesWordsPerMinute() {
+        String content = "gỗ ".repeat(ContentAnalyzer.WORDS_PER_MINUTE * 3);
+
+        assertEquals(3, analyze(content, null).readingTime());
+        assertEquals(1, analyze("", null).readingTime());
+    }
+
+    @Test
+    void analyze_LongSentencesScoreLowerReadability() {
+        String shortSentences = "Gỗ trầm rất thơm. Nhà có mùi dễ chịu. ".repeat(20);
+        String longSentences = ("Gỗ trầm được nhiều người tìm mua vì mùi hương dịu nhẹ và bền lâu, "
+                + "lại có thể dùng để xông nhà, làm vòng tay hay chế tác đồ mỹ nghệ tinh xảo "
+                + "với giá trị cao trên thị trường trong và ngoài nước. ").repeat(5);
+
+        int easy = analyze(shortSentences, null).readabilityScore();
+        int hard = analyze(longSentences, null).readabilityScore();
+
+        assertTrue(easy > hard, easy + " <= " + hard);
+        assertEquals(0, analyze("", null).readabilityScore());
+    }
+
+    @Test
+    void analyze_SeoScoreRewardsCompleteMetadata() {
+        String body = "Trầm hương tự nhiên. " + "Gỗ thơm quý hiếm được nhiều người yêu thích. ".repeat(40)
+                + "\n\n## Chọn trầm hương\n\nNên mua trầm hương ở nơi uy tín.";
+        String metaTitle = "Trầm hương tự nhiên: cách chọn mua và bảo quản đúng";
+        String metaDescription = "Hướng dẫn chọn trầm hương tự nhiên: phân biệt thật giả, cách bảo quản, "
+                + "giá tham khảo và những lưu ý quan trọng để mua được gỗ trầm chất lượng cao nhất.";
+
+        Analysis complete = ContentAnalyzer.analyze(new Input(body, "Trầm hương tự nhiên", "tram-huong-tu-nhien",
+                "trầm hương", metaTitle, metaDescription));
+        Analysis bare = ContentAnalyzer.analyze(new Input(body, "Gỗ", "go", null, null, null));
+
+        assertEquals(100, complete.seoScore(), complete.seoIssues().toString());
+        assertTrue(complete.seoIssues().isEmpty());
+        assertTrue(bare.seoScore() < 30);
+        assertTrue(bare.seoIssues().contains("Focus keyword is not set"));
+    }
+}
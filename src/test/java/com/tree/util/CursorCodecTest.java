@@ -0,0 +1,37 @@
+package com.tree.util;
+
+import com.tree.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+
+    @Test
+    void encodeDecode_RoundTrips() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123456000);
+        UUID id = UUID.randomUUID();
+
+        String token = CursorCodec.encode(createdAt, id);
+        CursorCodec.Cursor cursor = CursorCodec.decode(token);
+
+        assertFalse(token.contains("="));
+        assertEquals(createdAt, cursor.createdAt());
+        assertEquals(id, cursor.id());
+    }
+
+    @Test
+    void decode_BlankIsFirstPage() {
+        assertNull(CursorCodec.decode(null));
+        assertNull(CursorCodec.decode(" "));
+    }
+
+    @Test
+    void decode_InvalidToken_ThrowsBadRequest() {
+        assertThrows(BadRequestException.class, () -> CursorCodec.decode("not-a-cursor"));
+        assertThrows(BadRequestException.class, () -> CursorCodec.decode("%%%"));
+    }
+}
@@ -0,0 +1,32 @@
+package com.tree.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MagicBytesTest {
+
+    @Test
+    void detect_RecognisesImageSignatures() {
+        assertEquals("image/png", MagicBytes.detect(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0}));
+        assertEquals("image/jpeg", MagicBytes.detect(new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0}));
+        assertEquals("image/gif", MagicBytes.detect(ascii("GIF89a....")));
+        assertEquals("image/webp", MagicBytes.detect(ascii("RIFF\0\0\0\0WEBPVP8 ")));
+        assertEquals("image/svg+xml", MagicBytes.detect(ascii("\n  <?xml version")));
+        assertEquals("image/svg+xml", MagicBytes.detect(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, '<', 's'}));
+    }
+
+    @Test
+    void detect_UnknownOrTruncated_ReturnsNull() {
+        assertNull(MagicBytes.detect(ascii("MZ\u0090\0")));
+        assertNull(MagicBytes.detect(ascii("RIFF\0\0\0\0WAVE")));
+        assertNull(MagicBytes.detect(new byte[] {(byte) 0x89, 'P', 'N'}));
+        assertNull(MagicBytes.detect(new byte[0]));
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.tree.util;
+
+import com.tree.util.MarkdownUtil.Rendered;
+import com.tree.util.MarkdownUtil.TocEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarkdownUtilTest {
+
+    @Test
+    void render_AddsAccentFreeHeadingIds() {
+        String html = MarkdownUtil.render("# Giới thiệu\n\nNội dung\n\n## Công dụng của trầm").html();
+
+        assertTrue(html.contains("<h1 id=\"gioi-thieu\">Giới thiệu</h1>"));
+        assertTrue(html.contains("<h2 id=\"cong-dung-cua-tram\">Công dụng của trầm</h2>"));
+    }
+
+    @Test
+    void render_NestsTableOfContentsByLevel() {
+        Rendered rendered = MarkdownUtil.render("## Một\n\n### Một A\n\n### Một B\n\n## Hai\n\n#### Sâu");
+
+        List<TocEntry> toc = rendered.tableOfContents();
+        assertEquals(2, toc.size());
+        assertEquals("mot", toc.get(0).id());
+        assertEquals(2, toc.get(0).level());
+        assertEquals(List.of("mot-a", "mot-b"), toc.get(0).children().stream().map(TocEntry::id).toList());
+        assertEquals("Hai", toc.get(1).text());
+        assertEquals("sau", toc.get(1).children().get(0).id());
+    }
+
+    @Test
+    void render_DeduplicatesRepeatedHeadings() {
+        Rendered rendered = MarkdownUtil.render("## FAQ\n\n## FAQ\n\n## FAQ 1\n\n## ?!");
+
+        assertEquals(List.of("faq", "faq-1", "faq-1-1", "section"),
+                rendered.tableOfContents().stream().map(TocEntry::id).toList());
+        assertTrue(rendered.html().contains("<h2 id=\"faq-1\">FAQ</h2>"));
+    }
+
+    @Test
+    void render_UsesHeadingTextWithoutMarkup() {
+        Rendered rendered = MarkdownUtil.render("## **Trầm** _hương_");
+
+        assertEquals("Trầm hương", rendered.tableOfContents().get(0).text());
+        assertEquals("tram-huong", rendered.tableOfContents().get(0).id());
+    }
+
+    @Test
+    void render_BlankInput_IsEmpty() {
+        Rendered rendered = MarkdownUtil.render("  ");
+
+        assertEquals("", rendered.html());
+        assertTrue(rendered.tableOfContents().isEmpty());
+        assertEquals("", MarkdownUtil.markdownToHtml(null));
+    }
+}
@@ -16,6 +16,16 @@ class SlugUtilTest {
         assertEquals("bai-viet-tieng-viet", SlugUtil.toSlug("Bài viết tiếng Việt"));
     }
 
+    @Test
+    void toSlug_VietnameseDStroke() {
+        assertEquals("do-go-tram-huong", SlugUtil.toSlug("Đồ gỗ trầm hương"));
+    }
+
+    @Test
+    void removeAccents_KeepsCaseAndPunctuation() {
+        assertEquals("Dien dan, cong dong!", SlugUtil.removeAccents("Diễn đàn, cộng đồng!"));
+    }
+
     @Test
     void toSlug_SpecialCharacters() {
         String result = SlugUtil.toSlug("Test @#$ 123!");
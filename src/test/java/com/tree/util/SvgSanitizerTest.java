@@ -0,0 +1,71 @@
+package com.tree.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SvgSanitizerTest {
+
+    private static final String OPEN = "<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\">";
+
+    @Test
+    void sanitize_KeepsDrawing() throws XMLStreamException {
+        String svg = sanitize(OPEN + "<defs><linearGradient id=\"g\"/></defs>"
+                + "<rect width=\"10\" height=\"10\" fill=\"url(#g)\" style=\"stroke: red\"/>"
+                + "<use xlink:href=\"#g\"/><text x=\"1\">A &amp; B</text></svg>");
+
+        assertTrue(svg.contains("fill=\"url(#g)\""));
+        assertTrue(svg.contains("style=\"stroke: red\""));
+        assertTrue(svg.contains("xlink:href=\"#g\""));
+        assertTrue(svg.contains("A &amp; B"));
+    }
+
+    @Test
+    void sanitize_RemovesScriptHandlersAndForeignContent() throws XMLStreamException {
+        String svg = sanitize(OPEN.replace(">", " onload=\"alert(1)\">")
+                + "<script>alert(2)</script>"
+                + "<foreignObject><body xmlns=\"http://www.w3.org/1999/xhtml\"><p>x</p></body></foreignObject>"
+                + "<h:script xmlns:h=\"http://www.w3.org/1999/xhtml\">alert(3)</h:script>"
+                + "<a href=\"javascript:alert(4)\"><rect width=\"1\" height=\"1\" onclick=\"alert(5)\"/></a>"
+                + "<set attributeName=\"href\" to=\"javascript:alert(6)\"/>"
+                + "<image xlink:href=\"https://tracker.example/pixel.png\"/>"
+                + "</svg>");
+
+        assertFalse(svg.contains("alert"), svg);
+        assertFalse(svg.contains("foreignObject"));
+        assertFalse(svg.contains("tracker.example"));
+        assertTrue(svg.contains("<rect"));
+    }
+
+    @Test
+    void sanitize_DropsUnsafeStylesheets() throws XMLStreamException {
+        String safe = sanitize(OPEN + "<style>rect { fill: red } a > b { }</style></svg>");
+        String unsafe = sanitize(OPEN + "<style>@import url(https://evil.example/x.css);</style><rect/></svg>");
+
+        assertTrue(safe.contains("fill: red"));
+        assertFalse(unsafe.contains("style"));
+        assertFalse(unsafe.contains("evil"));
+    }
+
+    @Test
+    void sanitize_RejectsEntitiesAndNonSvgRoots() {
+        String entities = "<?xml version=\"1.0\"?><!DOCTYPE svg [<!ENTITY x SYSTEM \"file:///etc/passwd\">]>"
+                + OPEN + "<text>&x;</text></svg>";
+
+        assertThrows(XMLStreamException.class, () -> sanitize(entities));
+        assertThrows(XMLStreamException.class, () -> sanitize("<html><body/></html>"));
+        assertThrows(XMLStreamException.class, () -> sanitize("<svg><rect/></svg>"));
+        assertThrows(XMLStreamException.class, () -> sanitize(OPEN + "<rect>"));
+    }
+
+    private static String sanitize(String svg) throws XMLStreamException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SvgSanitizer.sanitize(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}